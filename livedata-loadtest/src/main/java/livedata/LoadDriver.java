@@ -0,0 +1,318 @@
+package livedata;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load and soak driver. Thousands of simulated {@link LifecycleOwner}s cycle through their states while
+ * observing live {@link PersonDAO#getPeople()} queries, and writer threads insert people concurrently. All lifecycle
+ * and LiveData work runs on one main-loop thread, which is also the query executor, like a UI thread would.
+ * <p>
+ * After a warmup the driver measures the latency from an insert to the observer callback that first sees it,
+ * throughput, allocation rate and GC pauses, and prints them as JSON so runs of different releases can be compared:
+ * <pre>
+ *   java -cp livedata/target/classes:livedata-loadtest/target/classes livedata.LoadDriver --scenario churn --output churn.json
+ * </pre>
+ * See {@link LoadScenario} for the scenarios and options.
+ */
+public class LoadDriver {
+
+    private static final int TICK_MILLIS = 10;
+
+    private static final Lifecycle.Event[] CYCLE = {
+            Lifecycle.Event.ON_PAUSE, Lifecycle.Event.ON_STOP, Lifecycle.Event.ON_START, Lifecycle.Event.ON_RESUME
+    };
+
+    private final LoadScenario scenario;
+    private final ScheduledExecutorService mainLoop = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "livedata-main");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PersonDAO dao = new PersonDAO_impl(() -> mainLoop::execute);
+    private final List<LiveData<List<Person>>> queries = new ArrayList<>();
+    private final StripedLiveDataMetrics metrics = new StripedLiveDataMetrics();
+
+    // Main loop only.
+    private SimulatedOwner[] owners;
+    private final Random random = new Random(42);
+    private double pendingLifecycleEvents;
+
+    private final Histogram writeToCallbackNanos = new Histogram();
+    private final Histogram gcPauseMillis = new Histogram();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder callbacks = new LongAdder();
+    private final LongAdder deliveredRows = new LongAdder();
+    private final LongAdder lifecycleEvents = new LongAdder();
+    private final LongAdder replacedOwners = new LongAdder();
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    LoadDriver(LoadScenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadScenario scenario = LoadScenario.parse(args);
+        String report = new LoadDriver(scenario).run();
+        System.out.println(report);
+        if (scenario.output != null) {
+            Files.write(Paths.get(scenario.output), report.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    String run() throws Exception {
+        Metrics.install(metrics);
+        listenForGcPauses();
+        onMainLoop(() -> {
+            for (int i = 0; i < scenario.liveQueries; i++) {
+                queries.add(dao.getPeople());
+            }
+            owners = new SimulatedOwner[scenario.owners];
+            for (int i = 0; i < owners.length; i++) {
+                owners[i] = new SimulatedOwner(queries.get(i % queries.size()));
+            }
+        });
+
+        List<Thread> writerThreads = new ArrayList<>();
+        for (int i = 0; i < scenario.writers; i++) {
+            Thread writer = new Thread(this::write, "livedata-writer-" + i);
+            writer.setDaemon(true);
+            writerThreads.add(writer);
+            writer.start();
+        }
+        mainLoop.scheduleAtFixedRate(this::cycleLifecycles, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(scenario.warmupSeconds));
+        onMainLoop(this::resetMeasurements);
+        Snapshot start = Snapshot.take();
+        measuring = true;
+        Thread.sleep(TimeUnit.SECONDS.toMillis(scenario.durationSeconds));
+        measuring = false;
+        Snapshot end = Snapshot.take();
+
+        running = false;
+        for (Thread writer : writerThreads) {
+            writer.join();
+        }
+        mainLoop.shutdown();
+        mainLoop.awaitTermination(10, TimeUnit.SECONDS);
+        Metrics.install(null);
+        return report(start, end);
+    }
+
+    private void write() {
+        long interval = scenario.writeRate > 0 ? TimeUnit.SECONDS.toNanos(1) / scenario.writeRate : 0;
+        long next = System.nanoTime();
+        while (running) {
+            dao.insert(new LoadPerson(System.nanoTime()));
+            writes.increment();
+            if (interval > 0) {
+                next += interval;
+                long delay = next - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+            }
+        }
+    }
+
+    private void cycleLifecycles() {
+        pendingLifecycleEvents += scenario.lifecycleRate * TICK_MILLIS / 1000.0;
+        for (; pendingLifecycleEvents >= 1; pendingLifecycleEvents--) {
+            int index = random.nextInt(owners.length);
+            SimulatedOwner owner = owners[index];
+            if (random.nextDouble() < scenario.churn) {
+                owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+                owners[index] = new SimulatedOwner(owner.query);
+                replacedOwners.increment();
+            } else {
+                Lifecycle.Event event = CYCLE[owner.step++ % CYCLE.length];
+                if (event == Lifecycle.Event.ON_STOP) {
+                    // Rows written while stopped are a backlog, not delivery latency.
+                    owner.seen = -1;
+                }
+                owner.registry.handleLifecycleEvent(event);
+            }
+            lifecycleEvents.increment();
+        }
+    }
+
+    private void resetMeasurements() {
+        writeToCallbackNanos.reset();
+        gcPauseMillis.reset();
+        writes.reset();
+        callbacks.reset();
+        deliveredRows.reset();
+        lifecycleEvents.reset();
+        replacedOwners.reset();
+        metrics.getDispatchNanos().reset();
+        metrics.getDispatchFanOut().reset();
+        metrics.getObserverNanos().reset();
+        metrics.getComputeNanos().reset();
+        metrics.getSyncPasses().reset();
+    }
+
+    private void onMainLoop(Runnable runnable) throws Exception {
+        mainLoop.submit(runnable).get();
+    }
+
+    private void listenForGcPauses() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!measuring
+                        || !notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                // Concurrent cycles don't stop the application threads.
+                if (!info.getGcAction().contains("concurrent")) {
+                    gcPauseMillis.record(info.getGcInfo().getDuration());
+                }
+            }, null, null);
+        }
+    }
+
+    private String report(Snapshot start, Snapshot end) {
+        double seconds = (end.nanos - start.nanos) / 1e9;
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"scenario\": {")
+                .append("\"name\": \"").append(scenario.name).append('"')
+                .append(", \"owners\": ").append(scenario.owners)
+                .append(", \"liveQueries\": ").append(scenario.liveQueries)
+                .append(", \"writers\": ").append(scenario.writers)
+                .append(", \"writeRate\": ").append(scenario.writeRate)
+                .append(", \"lifecycleRate\": ").append(scenario.lifecycleRate)
+                .append(", \"churn\": ").append(scenario.churn)
+                .append(", \"warmupSeconds\": ").append(scenario.warmupSeconds)
+                .append(", \"durationSeconds\": ").append(scenario.durationSeconds)
+                .append("},\n");
+        json.append("  \"jvm\": {")
+                .append("\"version\": \"").append(System.getProperty("java.version")).append('"')
+                .append(", \"processors\": ").append(Runtime.getRuntime().availableProcessors())
+                .append(", \"maxHeapBytes\": ").append(Runtime.getRuntime().maxMemory())
+                .append("},\n");
+        json.append("  \"measuredSeconds\": ").append(format(seconds)).append(",\n");
+        json.append("  \"throughput\": {")
+                .append("\"writesPerSecond\": ").append(format(writes.sum() / seconds))
+                .append(", \"callbacksPerSecond\": ").append(format(callbacks.sum() / seconds))
+                .append(", \"rowsDeliveredPerSecond\": ").append(format(deliveredRows.sum() / seconds))
+                .append(", \"lifecycleEventsPerSecond\": ").append(format(lifecycleEvents.sum() / seconds))
+                .append(", \"ownersReplaced\": ").append(replacedOwners.sum())
+                .append("},\n");
+        json.append("  \"writeToCallbackMicros\": ").append(histogram(writeToCallbackNanos, 1e3)).append(",\n");
+        json.append("  \"dispatchMicros\": ").append(histogram(metrics.getDispatchNanos(), 1e3)).append(",\n");
+        json.append("  \"dispatchFanOut\": ").append(histogram(metrics.getDispatchFanOut(), 1)).append(",\n");
+        json.append("  \"computeMicros\": ").append(histogram(metrics.getComputeNanos(), 1e3)).append(",\n");
+        json.append("  \"allocation\": {")
+                .append("\"bytesPerSecond\": ").append(format((end.allocatedBytes - start.allocatedBytes) / seconds))
+                .append(", \"totalBytes\": ").append(end.allocatedBytes - start.allocatedBytes)
+                .append("},\n");
+        json.append("  \"gc\": {")
+                .append("\"collections\": ").append(end.gcCount - start.gcCount)
+                .append(", \"collectionMillis\": ").append(end.gcMillis - start.gcMillis)
+                .append(", \"pauseMillis\": ").append(histogram(gcPauseMillis, 1))
+                .append("}\n");
+        return json.append("}").toString();
+    }
+
+    private static String histogram(Histogram histogram, double divisor) {
+        return "{\"count\": " + histogram.getCount()
+                + ", \"mean\": " + format(histogram.getMean() / divisor)
+                + ", \"p50\": " + format(histogram.getValueAtPercentile(50) / divisor)
+                + ", \"p90\": " + format(histogram.getValueAtPercentile(90) / divisor)
+                + ", \"p99\": " + format(histogram.getValueAtPercentile(99) / divisor)
+                + ", \"p99.9\": " + format(histogram.getValueAtPercentile(99.9) / divisor)
+                + ", \"max\": " + format(histogram.getMax() / divisor) + "}";
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private class SimulatedOwner implements LifecycleOwner {
+
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+        final LiveData<List<Person>> query;
+        int step;
+        // Rows this owner's observer has seen, -1 until its first callback after being started.
+        int seen = -1;
+
+        SimulatedOwner(LiveData<List<Person>> query) {
+            this.query = query;
+            registry.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+            registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+            registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+            query.observe(this, this::onPeople);
+        }
+
+        private void onPeople(List<Person> people) {
+            long now = System.nanoTime();
+            callbacks.increment();
+            int size = people.size();
+            if (seen >= 0 && size > seen) {
+                // The oldest row this owner has not seen yet waited the longest for this callback.
+                writeToCallbackNanos.record(now - ((LoadPerson) people.get(seen)).writtenAt);
+                deliveredRows.add(size - seen);
+            }
+            seen = Math.max(seen, size);
+        }
+
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+
+    private static class LoadPerson extends Person {
+
+        final long writtenAt;
+
+        LoadPerson(long writtenAt) {
+            super("load", "0cm");
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    private static class Snapshot {
+
+        long nanos;
+        long allocatedBytes;
+        long gcCount;
+        long gcMillis;
+
+        static Snapshot take() {
+            Snapshot snapshot = new Snapshot();
+            snapshot.nanos = System.nanoTime();
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                if (allocated > 0) {
+                    snapshot.allocatedBytes += allocated;
+                }
+            }
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                snapshot.gcCount += collector.getCollectionCount();
+                snapshot.gcMillis += collector.getCollectionTime();
+            }
+            return snapshot;
+        }
+    }
+}
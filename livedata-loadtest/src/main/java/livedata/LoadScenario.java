@@ -0,0 +1,105 @@
+package livedata;
+
+/**
+ * Settings of one {@link LoadDriver} run. Start from a named preset and override single values with
+ * {@code --name value} arguments, e.g. {@code --scenario churn --owners 5000 --duration 120}.
+ */
+class LoadScenario {
+
+    String name;
+    // Lifecycle owners, each observing one of the live queries.
+    int owners;
+    int liveQueries;
+    int writers;
+    // Inserts per second and writer, 0 for as fast as possible.
+    int writeRate;
+    // Lifecycle events per second across all owners.
+    int lifecycleRate;
+    // Share of lifecycle events that destroy an owner and replace it with a new one.
+    double churn;
+    int warmupSeconds;
+    int durationSeconds;
+    String output;
+
+    static LoadScenario preset(String name) {
+        LoadScenario scenario = new LoadScenario();
+        scenario.name = name;
+        scenario.liveQueries = 16;
+        scenario.warmupSeconds = 5;
+        scenario.durationSeconds = 30;
+        switch (name) {
+            case "steady":
+                scenario.owners = 2_000;
+                scenario.writers = 4;
+                scenario.writeRate = 250;
+                scenario.lifecycleRate = 2_000;
+                break;
+            case "churn":
+                scenario.owners = 5_000;
+                scenario.writers = 2;
+                scenario.writeRate = 100;
+                scenario.lifecycleRate = 10_000;
+                scenario.churn = 0.25;
+                break;
+            case "burst":
+                scenario.owners = 1_000;
+                scenario.writers = 8;
+                scenario.writeRate = 5_000;
+                scenario.lifecycleRate = 500;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario " + name + ", expected steady, churn or burst");
+        }
+        return scenario;
+    }
+
+    static LoadScenario parse(String[] args) {
+        String presetName = "steady";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--scenario")) {
+                presetName = args[i + 1];
+            }
+        }
+        LoadScenario scenario = preset(presetName);
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected --name value pairs");
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--scenario":
+                    break;
+                case "--owners":
+                    scenario.owners = Integer.parseInt(value);
+                    break;
+                case "--queries":
+                    scenario.liveQueries = Integer.parseInt(value);
+                    break;
+                case "--writers":
+                    scenario.writers = Integer.parseInt(value);
+                    break;
+                case "--write-rate":
+                    scenario.writeRate = Integer.parseInt(value);
+                    break;
+                case "--lifecycle-rate":
+                    scenario.lifecycleRate = Integer.parseInt(value);
+                    break;
+                case "--churn":
+                    scenario.churn = Double.parseDouble(value);
+                    break;
+                case "--warmup":
+                    scenario.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    scenario.durationSeconds = Integer.parseInt(value);
+                    break;
+                case "--output":
+                    scenario.output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        return scenario;
+    }
+}
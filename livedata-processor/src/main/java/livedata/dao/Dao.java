@@ -0,0 +1,16 @@
+package livedata.dao;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface whose implementation {@code <Name>_impl} is generated at compile time. Every method has to be
+ * annotated with {@link Insert} or {@link Query}; the generated class takes a {@code livedata.DataBase} and runs its
+ * live queries on {@code DataBase.getQueryExecutor()}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Dao {
+}
@@ -0,0 +1,15 @@
+package livedata.dao;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@code void} method with a single entity parameter. The entity is appended to its table and every live query on
+ * that table is invalidated.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Insert {
+}
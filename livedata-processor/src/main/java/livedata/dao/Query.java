@@ -0,0 +1,15 @@
+package livedata.dao;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A parameterless method returning all rows of an entity table, either as {@code List<Entity>} or as a live
+ * {@code livedata.LiveData<List<Entity>>} that is recomputed after each insert into the table.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Query {
+}
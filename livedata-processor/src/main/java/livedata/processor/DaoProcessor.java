@@ -0,0 +1,275 @@
+package livedata.processor;
+
+import livedata.dao.Dao;
+import livedata.dao.Insert;
+import livedata.dao.Query;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates {@code <Name>_impl} for every {@link Dao} interface. Each entity type gets an in-memory table; inserts
+ * append to it and invalidate the live queries on it, queries return a snapshot of it. The generated code is plain
+ * straight-line Java, nothing is looked up reflectively at runtime.
+ */
+@SupportedAnnotationTypes("livedata.dao.Dao")
+public class DaoProcessor extends AbstractProcessor {
+
+    private static final String LIVE_DATA = "livedata.LiveData";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(Dao.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error("@Dao can only be used on interfaces", element);
+                continue;
+            }
+            DaoModel dao = read((TypeElement) element);
+            if (dao != null) {
+                write(dao);
+            }
+        }
+        return true;
+    }
+
+    private DaoModel read(TypeElement type) {
+        DaoModel dao = new DaoModel(type);
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.isDefault() || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            MethodModel model;
+            if (method.getAnnotation(Insert.class) != null) {
+                model = readInsert(method);
+            } else if (method.getAnnotation(Query.class) != null) {
+                model = readQuery(method);
+            } else {
+                error("Methods of a @Dao need @Insert or @Query", method);
+                model = null;
+            }
+            if (model == null) {
+                valid = false;
+                continue;
+            }
+            dao.methods.add(model);
+            dao.tables.computeIfAbsent(model.entity, DaoProcessor::tableName);
+        }
+        return valid ? dao : null;
+    }
+
+    private MethodModel readInsert(ExecutableElement method) {
+        if (method.getReturnType().getKind() != TypeKind.VOID || method.getParameters().size() != 1) {
+            error("@Insert methods must return void and take the entity as their only parameter", method);
+            return null;
+        }
+        TypeMirror entity = method.getParameters().get(0).asType();
+        if (entity.getKind() != TypeKind.DECLARED) {
+            error("@Insert parameter must be an entity class", method);
+            return null;
+        }
+        return new MethodModel(MethodKind.INSERT, method, entity.toString());
+    }
+
+    private MethodModel readQuery(ExecutableElement method) {
+        if (!method.getParameters().isEmpty()) {
+            error("@Query methods must not take parameters", method);
+            return null;
+        }
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror returnType = method.getReturnType();
+        TypeElement liveData = processingEnv.getElementUtils().getTypeElement(LIVE_DATA);
+        MethodKind kind = MethodKind.LIST_QUERY;
+        if (liveData != null && returnType.getKind() == TypeKind.DECLARED
+                && types.isSameType(types.erasure(returnType), types.erasure(liveData.asType()))) {
+            kind = MethodKind.LIVE_QUERY;
+            returnType = typeArgument(returnType);
+        }
+        TypeMirror entity = isList(returnType) ? typeArgument(returnType) : null;
+        if (entity == null || entity.getKind() != TypeKind.DECLARED) {
+            error("@Query methods must return List<Entity> or LiveData<List<Entity>>", method);
+            return null;
+        }
+        return new MethodModel(kind, method, entity.toString());
+    }
+
+    private boolean isList(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement list = processingEnv.getElementUtils().getTypeElement(List.class.getCanonicalName());
+        return type != null && type.getKind() == TypeKind.DECLARED
+                && types.isSameType(types.erasure(type), types.erasure(list.asType()));
+    }
+
+    private static TypeMirror typeArgument(TypeMirror type) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        return arguments.size() == 1 ? arguments.get(0) : null;
+    }
+
+    private static String tableName(String entity) {
+        String simpleName = entity.substring(entity.lastIndexOf('.') + 1);
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+    }
+
+    private void write(DaoModel dao) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(dao.type).getQualifiedName().toString();
+        String interfaceName = dao.type.getSimpleName().toString();
+        String className = interfaceName + "_impl";
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        if (!packageName.equals("livedata")) {
+            out.append("import livedata.ComputableLiveData;\n")
+                    .append("import livedata.DataBase;\n")
+                    .append("import livedata.LiveData;\n\n");
+        }
+        out.append("import javax.annotation.processing.Generated;\n")
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.Collections;\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Set;\n")
+                .append("import java.util.WeakHashMap;\n\n")
+                .append("@Generated(\"").append(DaoProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(className).append(" implements ").append(interfaceName)
+                .append(" {\n\n")
+                .append("    private final DataBase dataBase;\n");
+        for (Map.Entry<String, String> table : dao.tables.entrySet()) {
+            out.append("    private final List<").append(table.getKey()).append("> ").append(table.getValue())
+                    .append("Table = new ArrayList<>();\n")
+                    .append("    private final Set<ComputableLiveData<?>> ").append(table.getValue())
+                    .append("Queries = Collections.newSetFromMap(new WeakHashMap<>());\n");
+        }
+        out.append("\n    public ").append(className).append("(DataBase dataBase) {\n")
+                .append("        this.dataBase = dataBase;\n")
+                .append("    }\n");
+        for (MethodModel method : dao.methods) {
+            String table = dao.tables.get(method.entity);
+            out.append("\n    @Override\n");
+            switch (method.kind) {
+                case INSERT:
+                    String parameter = method.element.getParameters().get(0).getSimpleName().toString();
+                    out.append("    public void ").append(method.name()).append("(").append(method.entity)
+                            .append(" ").append(parameter).append(") {\n")
+                            .append("        synchronized (").append(table).append("Table) {\n")
+                            .append("            ").append(table).append("Table.add(").append(parameter).append(");\n")
+                            .append("        }\n")
+                            .append("        invalidate(").append(table).append("Queries);\n")
+                            .append("    }\n");
+                    break;
+                case LIST_QUERY:
+                    out.append("    public List<").append(method.entity).append("> ").append(method.name())
+                            .append("() {\n")
+                            .append("        synchronized (").append(table).append("Table) {\n")
+                            .append("            return new ArrayList<>(").append(table).append("Table);\n")
+                            .append("        }\n")
+                            .append("    }\n");
+                    break;
+                case LIVE_QUERY:
+                    String resultType = "List<" + method.entity + ">";
+                    out.append("    public LiveData<").append(resultType).append("> ").append(method.name())
+                            .append("() {\n")
+                            .append("        ComputableLiveData<").append(resultType)
+                            .append("> query = new ComputableLiveData<").append(resultType)
+                            .append(">(dataBase.getQueryExecutor()) {\n")
+                            .append("            @Override\n")
+                            .append("            protected ").append(resultType).append(" compute() {\n")
+                            .append("                synchronized (").append(table).append("Table) {\n")
+                            .append("                    return new ArrayList<>(").append(table).append("Table);\n")
+                            .append("                }\n")
+                            .append("            }\n")
+                            .append("        };\n")
+                            .append("        synchronized (").append(table).append("Queries) {\n")
+                            .append("            ").append(table).append("Queries.add(query);\n")
+                            .append("        }\n")
+                            .append("        return query.getLiveData();\n")
+                            .append("    }\n");
+                    break;
+            }
+        }
+        out.append("\n    private static void invalidate(Set<ComputableLiveData<?>> queries) {\n")
+                .append("        List<ComputableLiveData<?>> snapshot;\n")
+                .append("        synchronized (queries) {\n")
+                .append("            snapshot = new ArrayList<>(queries);\n")
+                .append("        }\n")
+                .append("        for (ComputableLiveData<?> query : snapshot) {\n")
+                .append("            query.invalidate();\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, dao.type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(out.toString());
+            }
+        } catch (IOException e) {
+            error("Could not write " + qualifiedName + ": " + e.getMessage(), dao.type);
+        }
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum MethodKind {
+        INSERT,
+        LIST_QUERY,
+        LIVE_QUERY
+    }
+
+    private static class DaoModel {
+
+        final TypeElement type;
+        final List<MethodModel> methods = new ArrayList<>();
+        // Entity type to the name its table and query fields are derived from.
+        final Map<String, String> tables = new LinkedHashMap<>();
+
+        DaoModel(TypeElement type) {
+            this.type = type;
+        }
+    }
+
+    private static class MethodModel {
+
+        final MethodKind kind;
+        final ExecutableElement element;
+        final String entity;
+
+        MethodModel(MethodKind kind, ExecutableElement element, String entity) {
+            this.kind = kind;
+            this.element = element;
+            this.entity = entity;
+        }
+
+        String name() {
+            return element.getSimpleName().toString();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package livedata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * {@link PersonDAO} on top of a {@link PersonTable} instead of a {@code List<Person>}. Live queries are invalidated on
+ * every insert. Inserts may come from any thread, the table synchronizes appends against readers.
+ * {@link #getPeople()} hands out lazily materialized lists; {@link #getPeopleTable()} gives observers the table
+ * itself, to read through flyweight views without creating a {@link Person} per row.
+ */
+public class ColumnarPerson_impl implements PersonDAO {
+
+    private final DataBase dataBase;
+    private final PersonTable table;
+    private final Set<ComputableLiveData<?>> liveQueries = Collections.newSetFromMap(new WeakHashMap<>());
+
+    ColumnarPerson_impl(DataBase dataBase, int initialRows) {
+        this.dataBase = dataBase;
+        table = new PersonTable(initialRows);
+    }
+
+    @Override
+    public void insert(Person person) {
+        table.add(person);
+        List<ComputableLiveData<?>> queries;
+        synchronized (liveQueries) {
+            queries = new ArrayList<>(liveQueries);
+        }
+        for (ComputableLiveData<?> query : queries) {
+            query.invalidate();
+        }
+    }
+
+    @Override
+    public LiveData<List<Person>> getPeople() {
+        return liveQuery(new ComputableLiveData<List<Person>>(dataBase.getQueryExecutor()) {
+            @Override
+            protected List<Person> compute() {
+                return table.asList();
+            }
+        });
+    }
+
+    public LiveData<PersonTable> getPeopleTable() {
+        return liveQuery(new ComputableLiveData<PersonTable>(dataBase.getQueryExecutor()) {
+            @Override
+            protected PersonTable compute() {
+                return table;
+            }
+        });
+    }
+
+    private <T> LiveData<T> liveQuery(ComputableLiveData<T> query) {
+        synchronized (liveQueries) {
+            liveQueries.add(query);
+        }
+        return query.getLiveData();
+    }
+}
@@ -0,0 +1,163 @@
+package livedata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A value derived from several {@link LiveData} sources. Source changes are not applied right away but mark the node
+ * dirty in the current {@link Propagation}, which recomputes nodes in order of their rank (one more than the highest
+ * ranked source). A node therefore never observes a mix of old and new upstream values and is recomputed at most once
+ * per upstream change, even if that change reaches it along several paths.
+ * <p>
+ * Sources are only observed while this node has active observers. Reactivation does not count as a change: a source
+ * value whose version was already consumed is ignored when the source delivers it again.
+ */
+public class CombinedLiveData<R> extends LiveData<R> {
+
+    final int rank;
+    private final LiveData<?>[] sources;
+    private final SourceObserver[] sourceObservers;
+    private final Function<Object[], ? extends R> combiner;
+    private final boolean zip;
+
+    private final Object[] latest;
+    private final boolean[] received;
+    // Version of each source's last consumed value, so re-deliveries on reactivation are not taken as new values.
+    private final int[] consumedVersions;
+    private int receivedCount;
+    private boolean changed;
+    private boolean isScheduled;
+
+    private CombinedLiveData(List<? extends LiveData<?>> sources, Function<Object[], ? extends R> combiner, boolean zip) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one source is required");
+        }
+        this.sources = sources.toArray(new LiveData<?>[0]);
+        this.combiner = combiner;
+        this.zip = zip;
+        latest = new Object[this.sources.length];
+        received = new boolean[this.sources.length];
+        consumedVersions = new int[this.sources.length];
+        Arrays.fill(consumedVersions, START_VERSION);
+        sourceObservers = new SourceObserver[this.sources.length];
+        int maxSourceRank = 0;
+        for (int i = 0; i < this.sources.length; i++) {
+            sourceObservers[i] = new SourceObserver(this, i);
+            if (this.sources[i] instanceof CombinedLiveData) {
+                maxSourceRank = Math.max(maxSourceRank, ((CombinedLiveData<?>) this.sources[i]).rank);
+            }
+        }
+        rank = maxSourceRank + 1;
+    }
+
+    /**
+     * Emits {@code combiner(a, b)} whenever either source changes, once both have a value.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> CombinedLiveData<R> combineLatest(LiveData<A> a, LiveData<B> b,
+                                                             BiFunction<? super A, ? super B, ? extends R> combiner) {
+        return new CombinedLiveData<>(Arrays.asList(a, b), values -> combiner.apply((A) values[0], (B) values[1]), false);
+    }
+
+    /**
+     * Emits {@code combiner(values)} whenever any source changes, once all of them have a value. The array holds the
+     * latest value of each source in the order of {@code sources}.
+     */
+    public static <R> CombinedLiveData<R> combineLatest(List<? extends LiveData<?>> sources,
+                                                        Function<Object[], ? extends R> combiner) {
+        return new CombinedLiveData<>(sources, combiner, false);
+    }
+
+    /**
+     * Emits {@code combiner(a, b)} each time both sources have emitted a new value since the last emission.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> CombinedLiveData<R> zip(LiveData<A> a, LiveData<B> b,
+                                                   BiFunction<? super A, ? super B, ? extends R> combiner) {
+        return new CombinedLiveData<>(Arrays.asList(a, b), values -> combiner.apply((A) values[0], (B) values[1]), true);
+    }
+
+    /**
+     * Emits {@code combiner(values)} each time every source has emitted a new value since the last emission.
+     */
+    public static <R> CombinedLiveData<R> zip(List<? extends LiveData<?>> sources,
+                                              Function<Object[], ? extends R> combiner) {
+        return new CombinedLiveData<>(sources, combiner, true);
+    }
+
+    @Override
+    protected void onActive() {
+        // Sources deliver their current value when observed; recompute once after all of them did.
+        Propagation propagation = Propagation.enter();
+        try {
+            for (int i = 0; i < sources.length; i++) {
+                sources[i].observeForever(sourceObservers[i]);
+            }
+        } finally {
+            propagation.exit();
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        for (int i = 0; i < sources.length; i++) {
+            sources[i].removeObserver(sourceObservers[i]);
+        }
+    }
+
+    void recompute() {
+        isScheduled = false;
+        if (!changed || receivedCount < sources.length) {
+            return;
+        }
+        changed = false;
+        R value = combiner.apply(latest.clone());
+        if (zip) {
+            Arrays.fill(received, false);
+            receivedCount = 0;
+        }
+        setValue(value);
+    }
+
+    private void sourceChanged(int index, Object value) {
+        int version = sources[index].getVersion();
+        if (version <= consumedVersions[index]) {
+            return;
+        }
+        consumedVersions[index] = version;
+        latest[index] = value;
+        if (!received[index]) {
+            received[index] = true;
+            receivedCount++;
+        }
+        changed = true;
+        if (isScheduled) {
+            return;
+        }
+        isScheduled = true;
+        Propagation propagation = Propagation.enter();
+        try {
+            propagation.schedule(this);
+        } finally {
+            propagation.exit();
+        }
+    }
+
+    private static class SourceObserver implements Observer<Object> {
+
+        private final CombinedLiveData<?> node;
+        private final int index;
+
+        SourceObserver(CombinedLiveData<?> node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+
+        @Override
+        public void onChanged(Object value) {
+            node.sourceChanged(index, value);
+        }
+    }
+}
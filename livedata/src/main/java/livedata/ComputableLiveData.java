@@ -18,9 +18,22 @@ public abstract class ComputableLiveData<T> {
                 if (isComputing.compareAndSet(false, true)) {
                     try {
                         T value = null;
+                        LiveDataMetrics metrics = Metrics.get();
                         while (isInvalid.compareAndSet(true, false)) {
                             computed = true;
+                            long start = metrics == LiveDataMetrics.NONE ? 0 : System.nanoTime();
+                            ComputeEvent event = new ComputeEvent();
+                            event.begin();
                             value = compute();
+                            event.end();
+                            if (metrics != LiveDataMetrics.NONE) {
+                                metrics.computed(System.nanoTime() - start);
+                            }
+                            if (event.shouldCommit()) {
+                                event.computableClass = ComputableLiveData.this.getClass();
+                                event.version = liveData.getVersion();
+                                event.commit();
+                            }
                         }
                         if (computed) {
                             liveData.postValue(value);
@@ -48,6 +61,17 @@ public abstract class ComputableLiveData<T> {
         return liveData;
     }
 
+    /**
+     * Marks the current value as outdated; it is recomputed right away if the LiveData has active observers, otherwise
+     * on its next activation.
+     */
+    public void invalidate() {
+        boolean isActive = liveData.hasActiveObservers();
+        if (isInvalid.compareAndSet(false, true) && isActive) {
+            executor.execute(refreshable);
+        }
+    }
+
     protected abstract T compute();
 
 }
@@ -0,0 +1,24 @@
+package livedata;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("livedata.Compute")
+@Label("ComputableLiveData Compute")
+@Description("A ComputableLiveData.compute() call")
+@Category("LiveData")
+@Enabled(false)
+@StackTrace(false)
+class ComputeEvent extends jdk.jfr.Event {
+
+    @Label("ComputableLiveData Class")
+    Class<?> computableClass;
+
+    @Label("Version")
+    @Description("Version of the LiveData the result will be posted to, before posting it")
+    int version;
+}
@@ -0,0 +1,27 @@
+package livedata;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("livedata.Dispatch")
+@Label("LiveData Dispatch")
+@Description("A LiveData dispatch round to its observers")
+@Category("LiveData")
+@Enabled(false)
+@StackTrace(false)
+class DispatchEvent extends jdk.jfr.Event {
+
+    @Label("LiveData Class")
+    Class<?> liveDataClass;
+
+    @Label("Version")
+    int version;
+
+    @Label("Observer Count")
+    @Description("Observers that were notified in this round")
+    int observerCount;
+}
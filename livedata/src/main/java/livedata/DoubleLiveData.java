@@ -0,0 +1,49 @@
+package livedata;
+
+public class DoubleLiveData extends PrimitiveLiveData<DoubleObserver> {
+
+    private volatile double data;
+    private boolean hasPendingData;
+    private double pendingData;
+
+    private final Runnable postValueRunnable = () -> {
+        double newValue;
+        synchronized (dataLock) {
+            newValue = pendingData;
+            hasPendingData = false;
+        }
+        setValue(newValue);
+    };
+
+    void postValue(double value) {
+        boolean postTask;
+        synchronized (dataLock) {
+            postTask = !hasPendingData;
+            hasPendingData = true;
+            pendingData = value;
+        }
+        Metrics.get().valuePosted(!postTask);
+        if (!postTask) {
+            return;
+        }
+        postValueRunnable.run();
+    }
+
+    void setValue(double value) {
+        data = value;
+        valueChanged();
+    }
+
+    /**
+     * Returns the current value, or {@code 0} if none was set yet.
+     */
+    double getValue() {
+        return data;
+    }
+
+    @Override
+    void notifyObserver(DoubleObserver observer) {
+        observer.onChanged(data);
+    }
+
+}
@@ -0,0 +1,7 @@
+package livedata;
+
+public interface DoubleObserver {
+
+    void onChanged(double value);
+
+}
@@ -0,0 +1,276 @@
+package livedata;
+
+import java.util.Arrays;
+
+/**
+ * A lossless alternative to {@link LiveData} for event streams. Events are kept in a preallocated ring buffer and
+ * every observer reads them through its own sequence cursor, so nothing is conflated: an observer that is inactive
+ * for a while receives the backlog once it becomes active again. Late observers can replay up to {@code replay} of
+ * the most recent events.
+ * <p>
+ * The buffer has a single writer: {@link #publish(Object)} and the observer callbacks must all run on the same
+ * thread, like {@link LiveData#setValue(Object)}. Publishing does not allocate.
+ */
+public class EventStreamLiveData<T> {
+
+    public enum OverflowPolicy {
+        /**
+         * Overwrite the oldest event; an observer that had not read it yet skips ahead and the loss is counted.
+         */
+        OVERWRITE,
+        /**
+         * Refuse the new event, {@link #publish(Object)} returns {@code false}.
+         */
+        REJECT,
+        /**
+         * Remove every observer that would lose an event, then publish.
+         */
+        REMOVE_OBSERVER
+    }
+
+    // ObserverWrapper is an inner class of a generic type, so its array can only be created raw.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private final ObserverWrapper[] noObservers = new EventStreamLiveData.ObserverWrapper[0];
+
+    private final Object[] entries;
+    private final int mask;
+    private final int replay;
+    private final OverflowPolicy overflowPolicy;
+
+    // Sequence of the last published event.
+    private long sequence = -1;
+    // Lowest cursor of all observers as of the last time it was computed; only refreshed when the buffer wraps past it.
+    private long gatingSequence;
+    private long droppedCount;
+
+    // Replaced on every add/remove, so dispatch can iterate it without allocating or worrying about removals.
+    private ObserverWrapper[] observers = noObservers;
+    private int activeCount;
+    private boolean isDispatching;
+    private boolean isDispatchInvalidated;
+
+    public EventStreamLiveData(int capacity, int replay, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, was " + capacity);
+        }
+        if (replay < 0 || replay > capacity) {
+            throw new IllegalArgumentException("Replay must be between 0 and the capacity, was " + replay);
+        }
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.replay = replay;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    void observe(LifecycleOwner owner, Observer<? super T> observer) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        ObserverWrapper existing = find(observer);
+        if (existing != null) {
+            if (existing.owner != owner) {
+                throw new IllegalArgumentException("Cannot add livedata.Observer to same LifeCycle");
+            }
+            return;
+        }
+        ObserverWrapper wrapper = new ObserverWrapper(owner, observer);
+        wrapper.cursor = Math.max(0, sequence + 1 - replay);
+        gatingSequence = Math.min(gatingSequence, wrapper.cursor);
+        ObserverWrapper[] added = Arrays.copyOf(observers, observers.length + 1);
+        added[observers.length] = wrapper;
+        observers = added;
+        owner.getLifecycle().addObserver(wrapper);
+    }
+
+    public void removeObserver(Observer<? super T> observer) {
+        ObserverWrapper removed = find(observer);
+        if (removed == null) {
+            return;
+        }
+        ObserverWrapper[] remaining = Arrays.copyOf(observers, observers.length - 1);
+        for (int i = 0, j = 0; i < observers.length; i++) {
+            if (observers[i] != removed) {
+                remaining[j++] = observers[i];
+            }
+        }
+        observers = remaining;
+        removed.owner.getLifecycle().removeObserver(removed);
+        removed.activeStateChanged(false);
+    }
+
+    /**
+     * Appends an event and delivers it to all active observers.
+     *
+     * @return {@code false} if the buffer is full and the overflow policy is {@link OverflowPolicy#REJECT}
+     */
+    boolean publish(T event) {
+        long next = sequence + 1;
+        long wrapPoint = next - entries.length;
+        if (wrapPoint >= gatingSequence) {
+            gatingSequence = minimumCursor(next);
+            if (wrapPoint >= gatingSequence && !handleOverflow(wrapPoint)) {
+                return false;
+            }
+        }
+        entries[(int) (next & mask)] = event;
+        sequence = next;
+        dispatch(null);
+        return true;
+    }
+
+    private boolean handleOverflow(long wrapPoint) {
+        switch (overflowPolicy) {
+            case OVERWRITE:
+                // Observers catch up lazily in drain(), which also counts what they lost.
+                gatingSequence = wrapPoint + 1;
+                return true;
+            case REJECT:
+                return false;
+            case REMOVE_OBSERVER:
+                ObserverWrapper[] current = observers;
+                for (ObserverWrapper observer : current) {
+                    if (observer.cursor <= wrapPoint) {
+                        removeObserver(observer.observer);
+                    }
+                }
+                gatingSequence = minimumCursor(wrapPoint + 1);
+                return true;
+        }
+        throw new IllegalArgumentException("Unexpected overflow policy " + overflowPolicy);
+    }
+
+    private long minimumCursor(long fallback) {
+        long minimum = fallback;
+        for (ObserverWrapper observer : observers) {
+            minimum = Math.min(minimum, observer.cursor);
+        }
+        return minimum;
+    }
+
+    /**
+     * Sequence of the last published event, {@code -1} before the first one.
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Number of events observers skipped because they were overwritten before being read.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    protected void onActive() {
+
+    }
+
+    protected void onInactive() {
+
+    }
+
+    public boolean hasObservers() {
+        return observers.length > 0;
+    }
+
+    public boolean hasActiveObservers() {
+        return activeCount > 0;
+    }
+
+    private ObserverWrapper find(Observer<? super T> observer) {
+        for (ObserverWrapper wrapper : observers) {
+            if (wrapper.observer == observer) {
+                return wrapper;
+            }
+        }
+        return null;
+    }
+
+    private void dispatch(ObserverWrapper initiator) {
+        if (isDispatching) {
+            isDispatchInvalidated = true;
+            return;
+        }
+        isDispatching = true;
+        do {
+            isDispatchInvalidated = false;
+            if (initiator != null) {
+                drain(initiator);
+                initiator = null;
+            } else {
+                ObserverWrapper[] current = observers;
+                for (int i = 0; i < current.length && !isDispatchInvalidated; i++) {
+                    drain(current[i]);
+                }
+            }
+        } while (isDispatchInvalidated);
+        isDispatching = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain(ObserverWrapper observer) {
+        while (observer.cursor <= sequence) {
+            if (!observer.isActive) {
+                return;
+            }
+            if (!observer.shouldBeActive()) {
+                observer.activeStateChanged(false);
+                return;
+            }
+            long oldest = sequence - entries.length + 1;
+            if (observer.cursor < oldest) {
+                droppedCount += oldest - observer.cursor;
+                observer.cursor = oldest;
+            }
+            T event = (T) entries[(int) (observer.cursor & mask)];
+            observer.cursor++;
+            observer.observer.onChanged(event);
+        }
+    }
+
+    class ObserverWrapper implements GenericLifecycleObserver {
+
+        final LifecycleOwner owner;
+        final Observer<? super T> observer;
+        boolean isActive;
+        // Sequence of the next event this observer will receive.
+        long cursor;
+
+        ObserverWrapper(LifecycleOwner owner, Observer<? super T> observer) {
+            this.owner = owner;
+            this.observer = observer;
+        }
+
+        boolean shouldBeActive() {
+            return owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+        }
+
+        @Override
+        public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+            if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                removeObserver(observer);
+                return;
+            }
+            activeStateChanged(shouldBeActive());
+        }
+
+        void activeStateChanged(boolean newActive) {
+            if (newActive == isActive) {
+                return;
+            }
+
+            isActive = newActive;
+            boolean wasInactive = EventStreamLiveData.this.activeCount == 0;
+            EventStreamLiveData.this.activeCount += isActive ? 1 : -1;
+            if (wasInactive && isActive) {
+                onActive();
+            }
+            if (EventStreamLiveData.this.activeCount == 0 && !isActive) {
+                onInactive();
+            }
+            if (isActive) {
+                dispatch(this);
+            }
+        }
+    }
+}
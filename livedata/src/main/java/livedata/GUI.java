@@ -14,14 +14,16 @@ public class GUI implements LifecycleOwner {
         JFrame frame = new JFrame("test");
         frame.setLayout(new BorderLayout());
         frame.setSize(200, 200);
+        JList<Person> people = new JList<>(new LiveDataListModel<>(this, dataBaseConnector.getConnection().getPeople()));
+        // A prototype lets the list size its rows without rendering every person.
+        people.setPrototypeCellValue(new Person("Prototype", "000cm"));
+        frame.add(new JScrollPane(people), BorderLayout.CENTER);
         JButton test = new JButton("Test");
-        frame.add(test, BorderLayout.CENTER);
+        frame.add(test, BorderLayout.SOUTH);
         test.addActionListener(e -> dataBaseConnector.getConnection().insert(new Person("Test2", "3cm")));
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
 
-
-        dataBaseConnector.getConnection().getPeople().observe(this, System.out::println);
         dataBaseConnector.getConnection().insert(new Person("Test", "3cm"));
 
         new Runnable() {
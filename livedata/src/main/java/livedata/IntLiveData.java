@@ -0,0 +1,49 @@
+package livedata;
+
+public class IntLiveData extends PrimitiveLiveData<IntObserver> {
+
+    private volatile int data;
+    private boolean hasPendingData;
+    private int pendingData;
+
+    private final Runnable postValueRunnable = () -> {
+        int newValue;
+        synchronized (dataLock) {
+            newValue = pendingData;
+            hasPendingData = false;
+        }
+        setValue(newValue);
+    };
+
+    void postValue(int value) {
+        boolean postTask;
+        synchronized (dataLock) {
+            postTask = !hasPendingData;
+            hasPendingData = true;
+            pendingData = value;
+        }
+        Metrics.get().valuePosted(!postTask);
+        if (!postTask) {
+            return;
+        }
+        postValueRunnable.run();
+    }
+
+    void setValue(int value) {
+        data = value;
+        valueChanged();
+    }
+
+    /**
+     * Returns the current value, or {@code 0} if none was set yet.
+     */
+    int getValue() {
+        return data;
+    }
+
+    @Override
+    void notifyObserver(IntObserver observer) {
+        observer.onChanged(data);
+    }
+
+}
@@ -0,0 +1,7 @@
+package livedata;
+
+public interface IntObserver {
+
+    void onChanged(int value);
+
+}
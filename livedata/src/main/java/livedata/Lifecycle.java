@@ -10,8 +10,10 @@ public abstract class Lifecycle {
 
     public enum Event {
         ON_CREATE,
+        ON_START,
         ON_RESUME,
         ON_PAUSE,
+        ON_STOP,
         ON_DESTROY,
     }
 
@@ -29,8 +29,19 @@ public class LifecycleRegistry extends Lifecycle {
     public void addObserver(LifecycleObserver observer) {
         State initialState = state == State.DESTROYED ? State.DESTROYED : State.INITIALIZED;
         StateFulObserver stateFulObserver = new StateFulObserver(observer, initialState);
-        observerMap.putIfAbsent(observer, stateFulObserver);
-        //TODO
+        StateFulObserver previous = observerMap.putIfAbsent(observer, stateFulObserver);
+        if (previous != null) {
+            return;
+        }
+        LifecycleOwner lifecycleOwner = owner.get();
+        if (lifecycleOwner == null) {
+            return;
+        }
+        while (stateFulObserver.state.compareTo(state) < 0 && observerMap.contains(observer)) {
+            pushParentState(stateFulObserver.state);
+            stateFulObserver.dispatchEvent(lifecycleOwner, upEvent(stateFulObserver.state));
+            popParentState();
+        }
     }
 
     @Override
@@ -40,7 +51,18 @@ public class LifecycleRegistry extends Lifecycle {
 
     public void handleLifecycleEvent(Lifecycle.Event event) {
         State next = getStateAfter(event);
+        LifecycleTransitionEvent transition = new LifecycleTransitionEvent();
+        transition.begin();
         moveToState(next);
+        transition.end();
+        if (transition.shouldCommit()) {
+            LifecycleOwner lifecycleOwner = owner.get();
+            transition.ownerClass = lifecycleOwner != null ? lifecycleOwner.getClass() : null;
+            transition.event = event.name();
+            transition.state = state.name();
+            transition.observerCount = observerMap.size();
+            transition.commit();
+        }
     }
 
     private void popParentState() {
@@ -71,7 +93,9 @@ public class LifecycleRegistry extends Lifecycle {
             throw new IllegalStateException("livedata.LifecycleOwner of this livedata.LifecycleRegistry is already"
                     + "garbage collected. It is too late to change lifecycle state.");
         }
+        int passes = 0;
         while (!isSynced()) {
+            passes++;
             newEventOccurred = false;
             if (state.compareTo(observerMap.eldest().getValue().state) < 0) {
                 backwardPass(lifecycleOwner);
@@ -82,6 +106,7 @@ public class LifecycleRegistry extends Lifecycle {
             }
         }
         newEventOccurred = false;
+        Metrics.get().lifecycleSynced(passes);
     }
 
     private boolean isSynced() {
@@ -125,7 +150,9 @@ public class LifecycleRegistry extends Lifecycle {
     static State getStateAfter(Event event) {
         switch (event) {
             case ON_CREATE:
+            case ON_STOP:
                 return State.CREATED;
+            case ON_START:
             case ON_PAUSE:
                 return State.STARTED;
             case ON_RESUME:
@@ -142,8 +169,9 @@ public class LifecycleRegistry extends Lifecycle {
             case DESTROYED:
                 throw new IllegalArgumentException();
             case CREATED:
-            case STARTED:
                 return Event.ON_DESTROY;
+            case STARTED:
+                return Event.ON_STOP;
             case RESUMED:
                 return Event.ON_PAUSE;
         }
@@ -154,8 +182,9 @@ public class LifecycleRegistry extends Lifecycle {
         switch (state) {
             case INITIALIZED:
             case DESTROYED:
-            case CREATED:
                 return Event.ON_CREATE;
+            case CREATED:
+                return Event.ON_START;
             case STARTED:
                 return Event.ON_RESUME;
             case RESUMED:
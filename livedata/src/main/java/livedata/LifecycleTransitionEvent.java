@@ -0,0 +1,29 @@
+package livedata;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("livedata.LifecycleTransition")
+@Label("Lifecycle Transition")
+@Description("A LifecycleRegistry handling a lifecycle event, including syncing its observers")
+@Category("LiveData")
+@Enabled(false)
+@StackTrace(false)
+class LifecycleTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Owner Class")
+    Class<?> ownerClass;
+
+    @Label("Event")
+    String event;
+
+    @Label("State")
+    String state;
+
+    @Label("Observer Count")
+    int observerCount;
+}
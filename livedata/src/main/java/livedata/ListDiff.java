@@ -0,0 +1,54 @@
+package livedata;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The change between two lists as at most one changed, one inserted and one removed interval, found by trimming the
+ * common prefix and suffix. That is exact for the usual append, insert, remove and replace updates and takes linear
+ * time without allocating. All indices are inclusive; an absent interval has a negative start.
+ */
+final class ListDiff {
+
+    final int changedFrom;
+    final int changedTo;
+    final int insertedFrom;
+    final int insertedTo;
+    final int removedFrom;
+    final int removedTo;
+
+    private ListDiff(int changedFrom, int changedTo, int insertedFrom, int insertedTo, int removedFrom, int removedTo) {
+        this.changedFrom = changedFrom;
+        this.changedTo = changedTo;
+        this.insertedFrom = insertedFrom;
+        this.insertedTo = insertedTo;
+        this.removedFrom = removedFrom;
+        this.removedTo = removedTo;
+    }
+
+    static ListDiff between(List<?> oldList, List<?> newList) {
+        int oldSize = oldList.size();
+        int newSize = newList.size();
+        int prefix = 0;
+        int shorter = Math.min(oldSize, newSize);
+        while (prefix < shorter && Objects.equals(oldList.get(prefix), newList.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && Objects.equals(oldList.get(oldSize - 1 - suffix), newList.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+        int oldMiddle = oldSize - prefix - suffix;
+        int newMiddle = newSize - prefix - suffix;
+        int common = Math.min(oldMiddle, newMiddle);
+        return new ListDiff(
+                common > 0 ? prefix : -1, prefix + common - 1,
+                newMiddle > common ? prefix + common : -1, prefix + newMiddle - 1,
+                oldMiddle > common ? prefix + common : -1, prefix + oldMiddle - 1);
+    }
+
+    boolean isEmpty() {
+        return changedFrom < 0 && insertedFrom < 0 && removedFrom < 0;
+    }
+}
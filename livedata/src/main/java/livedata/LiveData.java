@@ -0,0 +1,374 @@
+package livedata;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public abstract class LiveData<T> {
+
+    static final int START_VERSION = -1;
+    private int version = START_VERSION;
+
+    private final SafeIterable<Observer<? super T>, ObserverWrapper> observers = new SafeIterable<>();
+
+    static final Object NOT_SET = new Object();
+    private volatile Object data = NOT_SET;
+    private int activeCount;
+    private boolean isDispatchingValue;
+    private boolean isDispatchInvalidated;
+    private Object mDataLock = new Object();
+    private Object pendingData = NOT_SET;
+    private final Queue<ObserverWrapper> staleObservers = new ConcurrentLinkedQueue<>();
+
+    private final Runnable postValueRunnable = () -> {
+        Object newValue;
+        synchronized (mDataLock) {
+            newValue = pendingData;
+            pendingData = NOT_SET;
+        }
+        setValue((T) newValue);
+    };
+
+    void observe(LifecycleOwner owner, Observer<? super T> observer) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        expungeStaleObservers();
+        addLifecycleObserver(owner, observer, new LifecycleBoundObserver(owner, observer));
+    }
+
+    /**
+     * Like {@link #observe(LifecycleOwner, Observer)}, but only holds the owner weakly. If the owner is garbage
+     * collected without reaching ON_DESTROY, the observer is removed by the {@link ObserverReaper}. The observer
+     * itself is still held strongly, so it must not capture the owner.
+     */
+    void observeWeakly(LifecycleOwner owner, Observer<? super T> observer) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        expungeStaleObservers();
+        addLifecycleObserver(owner, observer, new WeakLifecycleBoundObserver(owner, observer));
+    }
+
+    /**
+     * Observes without a lifecycle: the observer stays active until it is removed with
+     * {@link #removeObserver(Observer)}.
+     */
+    void observeForever(Observer<? super T> observer) {
+        AlwaysActiveObserver wrapper = new AlwaysActiveObserver(observer);
+        ObserverWrapper existing = observers.putIfAbsent(observer, wrapper);
+        if (existing instanceof GenericLifecycleObserver) {
+            throw new IllegalArgumentException("Cannot add the same livedata.Observer with different lifecycles");
+        }
+        if (existing != null) {
+            return;
+        }
+        wrapper.activeStateChanged(true);
+    }
+
+    private <W extends ObserverWrapper & GenericLifecycleObserver> void addLifecycleObserver(
+            LifecycleOwner owner, Observer<? super T> observer, W wrapper) {
+        ObserverWrapper existing = observers.putIfAbsent(observer, wrapper);
+        if (existing != null && !existing.isAttachedTo(owner)) {
+            throw new IllegalArgumentException("Cannot add livedata.Observer to same LifeCycle");
+        }
+        if (existing != null) {
+            return;
+        }
+        owner.getLifecycle().addObserver(wrapper);
+    }
+
+    private void expungeStaleObservers() {
+        ObserverWrapper stale;
+        while ((stale = staleObservers.poll()) != null) {
+            SafeIterable.Entry<Observer<? super T>, ObserverWrapper> current = observers.get(stale.observer);
+            if (current != null && current.mValue == stale) {
+                removeObserver(stale.observer);
+            }
+        }
+    }
+
+    void postValue(T value) {
+        boolean postTask = true;
+        synchronized (mDataLock) {
+            postTask = pendingData == NOT_SET;
+            pendingData = value;
+        }
+        Metrics.get().valuePosted(!postTask);
+        if (!postTask) {
+            return;
+        }
+        postValueRunnable.run();
+    }
+
+    void setValue(T value) {
+        assignValue(value);
+        // Derived values depending on this one are recomputed once the whole dispatch is done.
+        Propagation propagation = Propagation.enter();
+        try {
+            dispatchingValue(null);
+        } finally {
+            propagation.exit();
+        }
+    }
+
+    /**
+     * Stores a new value and bumps the version without notifying anyone, see {@link LiveDataTransaction}.
+     */
+    void assignValue(T value) {
+        version++;
+        data = value;
+    }
+
+    T getValue() {
+        Object data = this.data;
+        if (data != NOT_SET) {
+            return (T) data;
+        }
+        return null;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    protected void onActive() {
+
+    }
+
+    protected void onInactive() {
+
+    }
+
+    public boolean hasObservers() {
+        return observers.size() > 0;
+    }
+
+    public boolean hasActiveObservers() {
+        return activeCount > 0;
+    }
+
+    private boolean considerNotify(ObserverWrapper observer) {
+        if (!observer.isActive) {
+            return false;
+        }
+        // Check latest state b4 dispatch. Maybe it changed state but we didn't get the event yet.
+        //
+        // we still first check observer.active to keep it as the entrance for events. So even if
+        // the observer moved to an active state, if we've not received that event, we better not
+        // notify for a more predictable notification order.
+        if (!observer.shouldBeActive()) {
+            observer.activeStateChanged(false);
+            return false;
+        }
+        if (observer.lastVersion >= version) {
+            return false;
+        }
+        observer.lastVersion = version;
+        LiveDataMetrics metrics = Metrics.get();
+        long start = metrics == LiveDataMetrics.NONE ? 0 : System.nanoTime();
+        ObserverCallbackEvent event = new ObserverCallbackEvent();
+        event.begin();
+        observer.observer.onChanged((T) data);
+        event.end();
+        if (metrics != LiveDataMetrics.NONE) {
+            metrics.observerNotified(System.nanoTime() - start);
+        }
+        if (event.shouldCommit()) {
+            event.liveDataClass = getClass();
+            event.observerClass = observer.observer.getClass();
+            event.version = observer.lastVersion;
+            event.commit();
+        }
+        return true;
+    }
+
+    void dispatchingValue(ObserverWrapper initiator) {
+        if (isDispatchingValue) {
+            isDispatchInvalidated = true;
+            return;
+        }
+        expungeStaleObservers();
+        LiveDataMetrics metrics = Metrics.get();
+        long start = metrics == LiveDataMetrics.NONE ? 0 : System.nanoTime();
+        DispatchEvent event = new DispatchEvent();
+        event.begin();
+        int fanOut = 0;
+        isDispatchingValue = true;
+        do {
+            isDispatchInvalidated = false;
+            if (initiator != null) {
+                if (considerNotify(initiator)) {
+                    fanOut++;
+                }
+                initiator = null;
+            } else {
+                for (Iterator<Map.Entry<Observer<? super T>, ObserverWrapper>> iterator =
+                     observers.iteratorWithAdditions(); iterator.hasNext(); ) {
+                    if (considerNotify(iterator.next().getValue())) {
+                        fanOut++;
+                    }
+                    if (isDispatchInvalidated) {
+                        break;
+                    }
+                }
+            }
+        } while (isDispatchInvalidated);
+        isDispatchingValue = false;
+        event.end();
+        if (metrics != LiveDataMetrics.NONE) {
+            metrics.dispatched(System.nanoTime() - start, fanOut);
+        }
+        if (event.shouldCommit()) {
+            event.liveDataClass = getClass();
+            event.version = version;
+            event.observerCount = fanOut;
+            event.commit();
+        }
+    }
+
+
+    public abstract class ObserverWrapper {
+
+        Observer<? super T> observer;
+        boolean isActive;
+        int lastVersion = START_VERSION;
+
+        public ObserverWrapper(Observer<? super T> observer) {
+            this.observer = observer;
+        }
+
+        abstract boolean shouldBeActive();
+
+        boolean isAttachedTo(LifecycleOwner owner) {
+            return false;
+        }
+
+        void detachObserver() {
+
+        }
+
+        void activeStateChanged(boolean newActive) {
+            if (newActive == isActive) {
+                return;
+            }
+
+            isActive = newActive;
+            boolean wasInactive = LiveData.this.activeCount == 0;
+            LiveData.this.activeCount += isActive ? 1 : -1;
+            if (wasInactive && isActive) {
+                onActive();
+            }
+            if (LiveData.this.activeCount == 0 && !isActive) {
+                onInactive();
+            }
+            if (isActive) {
+                dispatchingValue(this);
+            }
+        }
+
+    }
+
+    class AlwaysActiveObserver extends ObserverWrapper {
+
+        AlwaysActiveObserver(Observer<? super T> observer) {
+            super(observer);
+        }
+
+        @Override
+        boolean shouldBeActive() {
+            return true;
+        }
+    }
+
+    class LifecycleBoundObserver extends ObserverWrapper implements GenericLifecycleObserver {
+
+        private LifecycleOwner owner;
+
+        public LifecycleBoundObserver(LifecycleOwner owner, Observer<? super T> observer) {
+            super(observer);
+            this.owner = owner;
+        }
+
+        @Override
+        boolean shouldBeActive() {
+            return owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+        }
+
+        @Override
+        boolean isAttachedTo(LifecycleOwner owner) {
+            return this.owner == owner;
+        }
+
+        @Override
+        void detachObserver() {
+            owner.getLifecycle().removeObserver(this);
+        }
+
+        @Override
+        public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+            if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                removeObserver(observer);
+                return;
+            }
+            activeStateChanged(shouldBeActive());
+        }
+    }
+
+    class WeakLifecycleBoundObserver extends ObserverWrapper implements GenericLifecycleObserver {
+
+        private final ObserverReaper.OwnerReference owner;
+
+        public WeakLifecycleBoundObserver(LifecycleOwner owner, Observer<? super T> observer) {
+            super(observer);
+            this.owner = new ObserverReaper.OwnerReference(owner) {
+                @Override
+                void ownerCollected() {
+                    staleObservers.add(WeakLifecycleBoundObserver.this);
+                }
+            };
+        }
+
+        @Override
+        boolean shouldBeActive() {
+            LifecycleOwner owner = this.owner.get();
+            return owner != null && owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+        }
+
+        @Override
+        boolean isAttachedTo(LifecycleOwner owner) {
+            return this.owner.get() == owner;
+        }
+
+        @Override
+        void detachObserver() {
+            LifecycleOwner owner = this.owner.get();
+            // Clearing keeps the reference off the reaper queue, so only real leaks get counted.
+            this.owner.clear();
+            if (owner != null) {
+                owner.getLifecycle().removeObserver(this);
+            }
+        }
+
+        @Override
+        public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+            LifecycleOwner owner = this.owner.get();
+            if (owner == null || owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                removeObserver(observer);
+                return;
+            }
+            activeStateChanged(shouldBeActive());
+        }
+    }
+
+    public void removeObserver(Observer<? super T> observer) {
+        ObserverWrapper removed = observers.remove(observer);
+        if (removed == null) {
+            return;
+        }
+        removed.detachObserver();
+        removed.activeStateChanged(false);
+    }
+
+}
@@ -0,0 +1,44 @@
+package livedata;
+
+import javax.swing.*;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link ListModel} backed by a {@code LiveData<List<T>>}. Updates are diffed off the EDT and fired as interval
+ * events at most once per frame, see {@link SwingListBinding}. Rows are only read when the view asks for them, so give
+ * the {@link JList} a fixed cell height or prototype value to keep it from measuring every row.
+ */
+public class LiveDataListModel<T> extends AbstractListModel<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> items = Collections.emptyList();
+
+    public LiveDataListModel(LifecycleOwner owner, LiveData<? extends List<T>> source) {
+        new SwingListBinding<>(owner, source, this::apply);
+    }
+
+    private void apply(List<T> items, ListDiff diff) {
+        this.items = items;
+        if (diff.removedFrom >= 0) {
+            fireIntervalRemoved(this, diff.removedFrom, diff.removedTo);
+        }
+        if (diff.insertedFrom >= 0) {
+            fireIntervalAdded(this, diff.insertedFrom, diff.insertedTo);
+        }
+        if (diff.changedFrom >= 0) {
+            fireContentsChanged(this, diff.changedFrom, diff.changedTo);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return items.size();
+    }
+
+    @Override
+    public T getElementAt(int index) {
+        return items.get(index);
+    }
+}
@@ -0,0 +1,42 @@
+package livedata;
+
+/**
+ * Instrumentation hooks called from the library's hot paths. Install an implementation with
+ * {@link Metrics#install(LiveDataMetrics)}; until then {@link #NONE} is used and the hot paths skip taking timestamps.
+ * Implementations are called from whatever thread runs the measured code and must not block.
+ */
+public interface LiveDataMetrics {
+
+    LiveDataMetrics NONE = new LiveDataMetrics() {
+    };
+
+    /**
+     * A {@link LiveData} dispatch round finished, {@code fanOut} observers were notified.
+     */
+    default void dispatched(long nanos, int fanOut) {
+    }
+
+    /**
+     * A single {@link Observer#onChanged(Object)} call returned.
+     */
+    default void observerNotified(long nanos) {
+    }
+
+    /**
+     * {@link LiveData#postValue(Object)} was called; {@code coalesced} if it replaced a value that was not set yet.
+     */
+    default void valuePosted(boolean coalesced) {
+    }
+
+    /**
+     * {@link ComputableLiveData#compute()} returned.
+     */
+    default void computed(long nanos) {
+    }
+
+    /**
+     * {@link LifecycleRegistry} finished syncing its observers after {@code passes} backward/forward rounds.
+     */
+    default void lifecycleSynced(int passes) {
+    }
+}
@@ -0,0 +1,73 @@
+package livedata;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@link javax.swing.table.TableModel} backed by a {@code LiveData<List<T>>}, one row per element. Cell values are
+ * extracted by the column functions only when the table paints a cell, so rows outside the viewport are never
+ * materialized. Updates are diffed off the EDT and fired at most once per frame, see {@link SwingListBinding}.
+ */
+public class LiveDataTableModel<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Column<T>> columns;
+    private List<T> items = Collections.emptyList();
+
+    public LiveDataTableModel(LifecycleOwner owner, LiveData<? extends List<T>> source, List<Column<T>> columns) {
+        this.columns = new ArrayList<>(columns);
+        new SwingListBinding<>(owner, source, this::apply);
+    }
+
+    private void apply(List<T> items, ListDiff diff) {
+        this.items = items;
+        if (diff.removedFrom >= 0) {
+            fireTableRowsDeleted(diff.removedFrom, diff.removedTo);
+        }
+        if (diff.insertedFrom >= 0) {
+            fireTableRowsInserted(diff.insertedFrom, diff.insertedTo);
+        }
+        if (diff.changedFrom >= 0) {
+            fireTableRowsUpdated(diff.changedFrom, diff.changedTo);
+        }
+    }
+
+    public T getRow(int rowIndex) {
+        return items.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return items.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).name;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return columns.get(columnIndex).value.apply(items.get(rowIndex));
+    }
+
+    public static class Column<T> {
+
+        final String name;
+        final Function<? super T, ?> value;
+
+        public Column(String name, Function<? super T, ?> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
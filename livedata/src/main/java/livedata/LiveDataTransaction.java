@@ -0,0 +1,48 @@
+package livedata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stages values for several {@link LiveData} instances and applies them together. On {@link #commit()} every staged
+ * value is stored and versioned first, then each affected instance dispatches once, so observers never see a partial
+ * update and are notified at most once per instance. Derived {@link CombinedLiveData} values are recomputed once after
+ * the whole dispatch round.
+ * <p>
+ * Like {@link LiveData#setValue(Object)}, a transaction has to be committed on the thread that owns the instances.
+ */
+public class LiveDataTransaction {
+
+    private final Map<LiveData<?>, Object> staged = new LinkedHashMap<>();
+
+    /**
+     * Stages {@code value} for {@code liveData}. Staging the same instance again replaces the earlier value.
+     */
+    public <T> LiveDataTransaction set(LiveData<T> liveData, T value) {
+        staged.put(liveData, value);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return staged.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    public void commit() {
+        if (staged.isEmpty()) {
+            return;
+        }
+        Propagation propagation = Propagation.enter();
+        try {
+            for (Map.Entry<LiveData<?>, Object> entry : staged.entrySet()) {
+                ((LiveData<Object>) entry.getKey()).assignValue(entry.getValue());
+            }
+            for (LiveData<?> liveData : staged.keySet()) {
+                liveData.dispatchingValue(null);
+            }
+        } finally {
+            staged.clear();
+            propagation.exit();
+        }
+    }
+}
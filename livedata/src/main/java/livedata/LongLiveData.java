@@ -0,0 +1,49 @@
+package livedata;
+
+public class LongLiveData extends PrimitiveLiveData<LongObserver> {
+
+    private volatile long data;
+    private boolean hasPendingData;
+    private long pendingData;
+
+    private final Runnable postValueRunnable = () -> {
+        long newValue;
+        synchronized (dataLock) {
+            newValue = pendingData;
+            hasPendingData = false;
+        }
+        setValue(newValue);
+    };
+
+    void postValue(long value) {
+        boolean postTask;
+        synchronized (dataLock) {
+            postTask = !hasPendingData;
+            hasPendingData = true;
+            pendingData = value;
+        }
+        Metrics.get().valuePosted(!postTask);
+        if (!postTask) {
+            return;
+        }
+        postValueRunnable.run();
+    }
+
+    void setValue(long value) {
+        data = value;
+        valueChanged();
+    }
+
+    /**
+     * Returns the current value, or {@code 0} if none was set yet.
+     */
+    long getValue() {
+        return data;
+    }
+
+    @Override
+    void notifyObserver(LongObserver observer) {
+        observer.onChanged(data);
+    }
+
+}
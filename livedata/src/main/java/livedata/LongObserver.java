@@ -0,0 +1,7 @@
+package livedata;
+
+public interface LongObserver {
+
+    void onChanged(long value);
+
+}
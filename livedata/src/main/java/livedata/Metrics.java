@@ -0,0 +1,17 @@
+package livedata;
+
+public final class Metrics {
+
+    private static volatile LiveDataMetrics current = LiveDataMetrics.NONE;
+
+    private Metrics() {
+    }
+
+    public static void install(LiveDataMetrics metrics) {
+        current = metrics == null ? LiveDataMetrics.NONE : metrics;
+    }
+
+    static LiveDataMetrics get() {
+        return current;
+    }
+}
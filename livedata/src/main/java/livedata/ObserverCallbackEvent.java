@@ -0,0 +1,26 @@
+package livedata;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("livedata.ObserverCallback")
+@Label("Observer Callback")
+@Description("A single Observer.onChanged call")
+@Category("LiveData")
+@Enabled(false)
+@StackTrace(false)
+class ObserverCallbackEvent extends jdk.jfr.Event {
+
+    @Label("LiveData Class")
+    Class<?> liveDataClass;
+
+    @Label("Observer Class")
+    Class<?> observerClass;
+
+    @Label("Version")
+    int version;
+}
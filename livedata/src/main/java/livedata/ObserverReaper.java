@@ -0,0 +1,62 @@
+package livedata;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ObserverReaper {
+
+    private static final int BATCH_SIZE = 64;
+
+    private static final ReferenceQueue<LifecycleOwner> queue = new ReferenceQueue<>();
+    private static final AtomicLong leakedObservers = new AtomicLong();
+
+    static {
+        Thread reaper = new Thread(ObserverReaper::reap, "livedata-observer-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    private ObserverReaper() {
+    }
+
+    /**
+     * Number of weakly bound observers whose owner was garbage collected without ever reaching ON_DESTROY.
+     */
+    public static long getLeakedObserverCount() {
+        return leakedObservers.get();
+    }
+
+    private static void reap() {
+        OwnerReference[] batch = new OwnerReference[BATCH_SIZE];
+        while (true) {
+            int size = 0;
+            try {
+                batch[size++] = (OwnerReference) queue.remove();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Reference<? extends LifecycleOwner> next;
+            while (size < BATCH_SIZE && (next = queue.poll()) != null) {
+                batch[size++] = (OwnerReference) next;
+            }
+            for (int i = 0; i < size; i++) {
+                batch[i].ownerCollected();
+                batch[i] = null;
+            }
+            leakedObservers.addAndGet(size);
+        }
+    }
+
+    abstract static class OwnerReference extends WeakReference<LifecycleOwner> {
+
+        OwnerReference(LifecycleOwner owner) {
+            super(owner, queue);
+        }
+
+        // Runs on the reaper thread, so implementations must only hand the dead wrapper over
+        // to the thread owning the livedata.LiveData instead of touching its observers directly.
+        abstract void ownerCollected();
+    }
+}
@@ -1,10 +1,17 @@
 package livedata;
 
+import livedata.dao.Dao;
+import livedata.dao.Insert;
+import livedata.dao.Query;
+
 import java.util.List;
 
+@Dao
 public interface PersonDAO {
 
+    @Insert
     void insert(Person person);
 
+    @Query
     LiveData<List<Person>> getPeople();
 }
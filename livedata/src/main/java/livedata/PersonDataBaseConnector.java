@@ -5,7 +5,7 @@ public class PersonDataBaseConnector implements DataBaseConnector<PersonDAO> {
     private PersonDAO personDAO;
 
     PersonDataBaseConnector() {
-        personDAO = new Person_impl(() -> Runnable::run);
+        personDAO = new PersonDAO_impl(() -> Runnable::run);
     }
 
     @Override
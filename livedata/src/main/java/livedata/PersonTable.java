@@ -0,0 +1,213 @@
+package livedata;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only, column-oriented storage for {@link Person} rows outside the Java heap. Names are kept as UTF-8 in one
+ * direct buffer with a second buffer of start offsets; heights are dictionary encoded into a column of two byte codes,
+ * since there are only a handful of distinct ones. The heap only holds the buffers and the height dictionary, no
+ * matter how many rows there are, which keeps GC work flat as the table grows.
+ * <p>
+ * Rows are read through a reusable {@link View} instead of materializing a {@link Person} each. Like the lists in
+ * {@link PersonDAO_impl}, the table is synchronized on itself: appends may happen on any thread while views and lists
+ * are read on others. {@link #forEach(Consumer)} holds the lock for the whole pass.
+ */
+public class PersonTable {
+
+    private static final int MAX_HEIGHT_CODES = 1 << 16;
+
+    private ByteBuffer nameBytes;
+    // Start of every row's name in nameBytes, plus the end of the last one.
+    private ByteBuffer nameOffsets;
+    private ByteBuffer heightCodes;
+    private int rowCount;
+    private int rowCapacity;
+
+    private final List<String> heightDictionary = new ArrayList<>();
+    private final Map<String, Integer> heightCodeByValue = new HashMap<>();
+
+    public PersonTable(int initialRows) {
+        rowCapacity = Math.max(initialRows, 16);
+        nameBytes = ByteBuffer.allocateDirect(rowCapacity * 16);
+        nameOffsets = ByteBuffer.allocateDirect((rowCapacity + 1) * Integer.BYTES);
+        heightCodes = ByteBuffer.allocateDirect(rowCapacity * Character.BYTES);
+    }
+
+    public synchronized void add(Person person) {
+        byte[] name = person.name.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(name.length);
+        int start = nameOffsets.getInt(rowCount * Integer.BYTES);
+        for (int i = 0; i < name.length; i++) {
+            nameBytes.put(start + i, name[i]);
+        }
+        nameOffsets.putInt((rowCount + 1) * Integer.BYTES, start + name.length);
+        heightCodes.putChar(rowCount * Character.BYTES, (char) heightCode(person.height));
+        rowCount++;
+    }
+
+    public synchronized int size() {
+        return rowCount;
+    }
+
+    /**
+     * Calls {@code action} for every row with the same, repositioned view. The view must not be kept after the call.
+     */
+    public synchronized void forEach(Consumer<? super View> action) {
+        View view = new View();
+        for (int row = 0; row < rowCount; row++) {
+            view.row = row;
+            action.accept(view);
+        }
+    }
+
+    public View view(int row) {
+        View view = new View();
+        view.moveTo(row);
+        return view;
+    }
+
+    /**
+     * A read-only list of the rows that exist now. Elements are materialized on every {@code get}, so reading a window
+     * of rows only creates those. This does not carry over to {@link LiveDataListModel}: its binding copies each
+     * emitted list, and since {@link Person} has no {@code equals}, the diff reports every row as changed. Observe
+     * {@link ColumnarPerson_impl#getPeopleTable()} and read through {@link #view(int)} to avoid that.
+     */
+    public synchronized List<Person> asList() {
+        int size = rowCount;
+        return new AbstractList<Person>() {
+            @Override
+            public Person get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                return view(index).toPerson();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Bytes held outside the heap by this table.
+     */
+    public synchronized long getOffHeapBytes() {
+        return (long) nameBytes.capacity() + nameOffsets.capacity() + heightCodes.capacity();
+    }
+
+    private int heightCode(String height) {
+        Integer code = heightCodeByValue.get(height);
+        if (code != null) {
+            return code;
+        }
+        if (heightDictionary.size() == MAX_HEIGHT_CODES) {
+            throw new IllegalStateException("More than " + MAX_HEIGHT_CODES + " distinct heights");
+        }
+        heightDictionary.add(height);
+        heightCodeByValue.put(height, heightDictionary.size() - 1);
+        return heightDictionary.size() - 1;
+    }
+
+    private void ensureCapacity(int nameLength) {
+        if (rowCount == rowCapacity) {
+            rowCapacity *= 2;
+            nameOffsets = grow(nameOffsets, (rowCapacity + 1) * Integer.BYTES);
+            heightCodes = grow(heightCodes, rowCapacity * Character.BYTES);
+        }
+        long required = (long) nameOffsets.getInt(rowCount * Integer.BYTES) + nameLength;
+        if (required > nameBytes.capacity()) {
+            nameBytes = grow(nameBytes, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, 2L * nameBytes.capacity())));
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(buffer.duplicate().clear());
+        return grown;
+    }
+
+    /**
+     * Flyweight over one row. Only {@link #getName()} and {@link #toPerson()} allocate.
+     */
+    public class View {
+
+        private int row;
+
+        public View moveTo(int row) {
+            synchronized (PersonTable.this) {
+                checkRow(row);
+            }
+            this.row = row;
+            return this;
+        }
+
+        private void checkRow(int row) {
+            if (row < 0 || row >= rowCount) {
+                throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + rowCount);
+            }
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getNameLength() {
+            synchronized (PersonTable.this) {
+                return nameLength();
+            }
+        }
+
+        private int nameLength() {
+            return nameOffsets.getInt((row + 1) * Integer.BYTES) - nameOffsets.getInt(row * Integer.BYTES);
+        }
+
+        /**
+         * Copies the UTF-8 encoded name into {@code target} and returns its length.
+         */
+        public int copyName(byte[] target) {
+            synchronized (PersonTable.this) {
+                int length = nameLength();
+                int start = nameOffsets.getInt(row * Integer.BYTES);
+                for (int i = 0; i < length; i++) {
+                    target[i] = nameBytes.get(start + i);
+                }
+                return length;
+            }
+        }
+
+        public String getName() {
+            synchronized (PersonTable.this) {
+                byte[] name = new byte[nameLength()];
+                copyName(name);
+                return new String(name, StandardCharsets.UTF_8);
+            }
+        }
+
+        /**
+         * Returns the shared dictionary entry, so this does not allocate.
+         */
+        public String getHeight() {
+            synchronized (PersonTable.this) {
+                return heightDictionary.get(heightCodes.getChar(row * Character.BYTES));
+            }
+        }
+
+        public Person toPerson() {
+            return new Person(getName(), getHeight());
+        }
+
+        @Override
+        public String toString() {
+            return "Name: " + getName() + ", height: " + getHeight();
+        }
+    }
+}
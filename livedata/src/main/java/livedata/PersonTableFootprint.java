@@ -0,0 +1,77 @@
+package livedata;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares heap, off-heap and GC cost of holding people in the {@code ArrayList} used by {@link PersonDAO_impl}
+ * against a {@link PersonTable}. Run with a row count, e.g. {@code java -Xmx4g livedata.PersonTableFootprint 10000000}.
+ */
+public class PersonTableFootprint {
+
+    private static final String[] HEIGHTS = new String[71];
+
+    static {
+        for (int i = 0; i < HEIGHTS.length; i++) {
+            HEIGHTS[i] = (140 + i) + "cm";
+        }
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        Sample before = Sample.take();
+        List<Person> list = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            list.add(new Person("Person-" + i, new String(HEIGHTS[i % HEIGHTS.length])));
+        }
+        Sample built = Sample.take();
+        long fullGcNanos = fullGc();
+        Sample settled = Sample.take();
+        report("ArrayList<Person>", before, built, settled, fullGcNanos, list.size(), 0);
+        list = null;
+        fullGc();
+
+        before = Sample.take();
+        PersonTable table = new PersonTable(16);
+        for (int i = 0; i < rows; i++) {
+            table.add(new Person("Person-" + i, new String(HEIGHTS[i % HEIGHTS.length])));
+        }
+        built = Sample.take();
+        fullGcNanos = fullGc();
+        settled = Sample.take();
+        report("PersonTable", before, built, settled, fullGcNanos, table.size(), table.getOffHeapBytes());
+    }
+
+    private static long fullGc() {
+        long start = System.nanoTime();
+        System.gc();
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, Sample before, Sample built, Sample settled, long fullGcNanos, int size,
+                               long offHeapBytes) {
+        System.out.printf("%-18s rows=%d heap=%dMB offHeap=%dMB gcDuringBuild=%d (%dms) fullGcWithDataLive=%dms%n",
+                name, size, Math.max(0, settled.heapUsed - before.heapUsed) >> 20, offHeapBytes >> 20,
+                built.gcCount - before.gcCount, built.gcMillis - before.gcMillis, fullGcNanos / 1_000_000);
+    }
+
+    private static class Sample {
+
+        long heapUsed;
+        long gcCount;
+        long gcMillis;
+
+        static Sample take() {
+            Sample sample = new Sample();
+            sample.heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                sample.gcCount += collector.getCollectionCount();
+                sample.gcMillis += collector.getCollectionTime();
+            }
+            return sample;
+        }
+    }
+}
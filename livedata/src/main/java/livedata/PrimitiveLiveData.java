@@ -3,31 +3,23 @@ package livedata;
 import java.util.Iterator;
 import java.util.Map;
 
-public abstract class LiveData<T> {
+/**
+ * Lifecycle and versioning shared by {@link IntLiveData}, {@link LongLiveData} and {@link DoubleLiveData}. It mirrors
+ * {@link LiveData}, but leaves storing the value and calling the primitive observer to the subclass, so nothing on
+ * the set and dispatch path has to be boxed. Dispatch reports to {@link Metrics} and emits the same JFR events.
+ */
+abstract class PrimitiveLiveData<O> {
 
-    static final int START_VERSION = -1;
-    private int version = START_VERSION;
+    private int version = LiveData.START_VERSION;
 
-    private final SafeIterable<Observer<? super T>, ObserverWrapper> observers = new SafeIterable<>();
+    private final SafeIterable<O, ObserverWrapper> observers = new SafeIterable<>();
 
-    static final Object NOT_SET = new Object();
-    private volatile Object data = NOT_SET;
     private int activeCount;
     private boolean isDispatchingValue;
     private boolean isDispatchInvalidated;
-    private Object mDataLock = new Object();
-    private Object pendingData = NOT_SET;
+    final Object dataLock = new Object();
 
-    private final Runnable postValueRunnable = () -> {
-        Object newValue;
-        synchronized (mDataLock) {
-            newValue = pendingData;
-            pendingData = NOT_SET;
-        }
-        setValue((T) newValue);
-    };
-
-    void observe(LifecycleOwner owner, Observer<? super T> observer) {
+    void observe(LifecycleOwner owner, O observer) {
         if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
             return;
         }
@@ -43,30 +35,24 @@ public abstract class LiveData<T> {
         owner.getLifecycle().addObserver(wrapper);
     }
 
-    void postValue(T value) {
-        boolean postTask = true;
-        synchronized (mDataLock) {
-            postTask = pendingData == NOT_SET;
-            pendingData = value;
-        }
-        if (!postTask) {
+    public void removeObserver(O observer) {
+        ObserverWrapper removed = observers.remove(observer);
+        if (removed == null) {
             return;
         }
-        postValueRunnable.run();
+        removed.detachObserver();
+        removed.activeStateChanged(false);
     }
 
-    void setValue(T value) {
+    /**
+     * Called by the subclass after it stored a new value.
+     */
+    void valueChanged() {
         version++;
-        data = value;
+        dispatchingValue(null);
     }
 
-    T getValue() {
-        Object data = this.data;
-        if (data != NOT_SET) {
-            return (T) data;
-        }
-        return null;
-    }
+    abstract void notifyObserver(O observer);
 
     int getVersion() {
         return version;
@@ -88,24 +74,34 @@ public abstract class LiveData<T> {
         return activeCount > 0;
     }
 
-    private void considerNotify(ObserverWrapper observer) {
+    private boolean considerNotify(ObserverWrapper observer) {
         if (!observer.isActive) {
-            return;
+            return false;
         }
-        // Check latest state b4 dispatch. Maybe it changed state but we didn't get the event yet.
-        //
-        // we still first check observer.active to keep it as the entrance for events. So even if
-        // the observer moved to an active state, if we've not received that event, we better not
-        // notify for a more predictable notification order.
         if (!observer.shouldBeActive()) {
             observer.activeStateChanged(false);
-            return;
+            return false;
         }
         if (observer.lastVersion >= version) {
-            return;
+            return false;
         }
         observer.lastVersion = version;
-        observer.observer.onChanged((T) data);
+        LiveDataMetrics metrics = Metrics.get();
+        long start = metrics == LiveDataMetrics.NONE ? 0 : System.nanoTime();
+        ObserverCallbackEvent event = new ObserverCallbackEvent();
+        event.begin();
+        notifyObserver(observer.observer);
+        event.end();
+        if (metrics != LiveDataMetrics.NONE) {
+            metrics.observerNotified(System.nanoTime() - start);
+        }
+        if (event.shouldCommit()) {
+            event.liveDataClass = getClass();
+            event.observerClass = observer.observer.getClass();
+            event.version = observer.lastVersion;
+            event.commit();
+        }
+        return true;
     }
 
     void dispatchingValue(ObserverWrapper initiator) {
@@ -113,16 +109,25 @@ public abstract class LiveData<T> {
             isDispatchInvalidated = true;
             return;
         }
+        LiveDataMetrics metrics = Metrics.get();
+        long start = metrics == LiveDataMetrics.NONE ? 0 : System.nanoTime();
+        DispatchEvent event = new DispatchEvent();
+        event.begin();
+        int fanOut = 0;
         isDispatchingValue = true;
         do {
             isDispatchInvalidated = false;
             if (initiator != null) {
-                considerNotify(initiator);
+                if (considerNotify(initiator)) {
+                    fanOut++;
+                }
                 initiator = null;
             } else {
-                for (Iterator<Map.Entry<Observer<? super T>, ObserverWrapper>> iterator =
+                for (Iterator<Map.Entry<O, ObserverWrapper>> iterator =
                      observers.iteratorWithAdditions(); iterator.hasNext(); ) {
-                    considerNotify(iterator.next().getValue());
+                    if (considerNotify(iterator.next().getValue())) {
+                        fanOut++;
+                    }
                     if (isDispatchInvalidated) {
                         break;
                     }
@@ -130,16 +135,25 @@ public abstract class LiveData<T> {
             }
         } while (isDispatchInvalidated);
         isDispatchingValue = false;
+        event.end();
+        if (metrics != LiveDataMetrics.NONE) {
+            metrics.dispatched(System.nanoTime() - start, fanOut);
+        }
+        if (event.shouldCommit()) {
+            event.liveDataClass = getClass();
+            event.version = version;
+            event.observerCount = fanOut;
+            event.commit();
+        }
     }
 
+    abstract class ObserverWrapper {
 
-    public abstract class ObserverWrapper {
-
-        Observer<? super T> observer;
+        final O observer;
         boolean isActive;
-        int lastVersion = START_VERSION;
+        int lastVersion = LiveData.START_VERSION;
 
-        public ObserverWrapper(Observer<? super T> observer) {
+        ObserverWrapper(O observer) {
             this.observer = observer;
         }
 
@@ -159,26 +173,25 @@ public abstract class LiveData<T> {
             }
 
             isActive = newActive;
-            boolean wasInactive = LiveData.this.activeCount == 0;
-            LiveData.this.activeCount += isActive ? 1 : -1;
+            boolean wasInactive = PrimitiveLiveData.this.activeCount == 0;
+            PrimitiveLiveData.this.activeCount += isActive ? 1 : -1;
             if (wasInactive && isActive) {
                 onActive();
             }
-            if (LiveData.this.activeCount == 0 && !isActive) {
+            if (PrimitiveLiveData.this.activeCount == 0 && !isActive) {
                 onInactive();
             }
             if (isActive) {
                 dispatchingValue(this);
             }
         }
-
     }
 
     class LifecycleBoundObserver extends ObserverWrapper implements GenericLifecycleObserver {
 
-        private LifecycleOwner owner;
+        private final LifecycleOwner owner;
 
-        public LifecycleBoundObserver(LifecycleOwner owner, Observer<? super T> observer) {
+        LifecycleBoundObserver(LifecycleOwner owner, O observer) {
             super(observer);
             this.owner = owner;
         }
@@ -188,6 +201,15 @@ public abstract class LiveData<T> {
             return owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
         }
 
+        @Override
+        boolean isAttachedTo(LifecycleOwner owner) {
+            return this.owner == owner;
+        }
+
+        @Override
+        void detachObserver() {
+            owner.getLifecycle().removeObserver(this);
+        }
 
         @Override
         public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
@@ -198,14 +220,4 @@ public abstract class LiveData<T> {
             activeStateChanged(shouldBeActive());
         }
     }
-
-    public void removeObserver(Observer<? super T> observer) {
-        ObserverWrapper removed = observers.remove(observer);
-        if (removed == null) {
-            return;
-        }
-        removed.detachObserver();
-        removed.activeStateChanged(false);
-    }
-
 }
@@ -0,0 +1,47 @@
+package livedata;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Per-thread scheduler that recomputes {@link CombinedLiveData} nodes in topological order. Nodes that became dirty
+ * while a propagation is open are queued by rank and only recomputed when the outermost {@link #exit()} runs, so a
+ * node sees all of its upstream changes at once and is recomputed at most once per transaction.
+ */
+final class Propagation {
+
+    private static final ThreadLocal<Propagation> current = ThreadLocal.withInitial(Propagation::new);
+
+    private final PriorityQueue<CombinedLiveData<?>> dirtyNodes =
+            new PriorityQueue<>(Comparator.comparingInt(node -> node.rank));
+    private int depth;
+
+    private Propagation() {
+    }
+
+    static Propagation enter() {
+        Propagation propagation = current.get();
+        propagation.depth++;
+        return propagation;
+    }
+
+    void exit() {
+        if (depth > 1) {
+            depth--;
+            return;
+        }
+        try {
+            // Stay open while draining, so values set by recomputed nodes only queue their dependents.
+            CombinedLiveData<?> node;
+            while ((node = dirtyNodes.poll()) != null) {
+                node.recompute();
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    void schedule(CombinedLiveData<?> node) {
+        dirtyNodes.add(node);
+    }
+}
@@ -0,0 +1,304 @@
+package livedata;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fronts a slow {@link Source} with stale-while-revalidate {@link LiveData}s. When a {@link #get(Object) resource}
+ * becomes active it immediately emits the cached value, if any, and fetches a fresh one in the background once the
+ * cached value is older than the TTL. While a key has active resources it is revalidated on a timer as well, so
+ * long-lived observers keep getting fresh values without being reactivated. Keys that were activated at least
+ * {@code popularHits} times since a fetch become popular, and stay so while they have active resources; they are
+ * refreshed ahead of expiry, during the last {@code refreshAheadNanos} of their TTL, so their observers never see a
+ * stale value. Concurrent fetches of the same key are folded into one; a failed fetch keeps the stale value and is
+ * retried a TTL later. Values reach the resources through the delivery {@link Executor}, never on a fetch thread.
+ * <p>
+ * The cache is bounded by the total weight of its values. When it is exceeded the least recently used entries without
+ * active observers or a running fetch are evicted.
+ */
+public class ResourceCache<K, V> {
+
+    public interface Source<K, V> {
+
+        V fetch(K key) throws Exception;
+    }
+
+    private static final ScheduledExecutorService revalidator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "livedata-resource-cache-revalidate");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Source<K, V> source;
+    private final Executor fetchExecutor;
+    private final Executor deliveryExecutor;
+    private final long ttlNanos;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private long refreshAheadNanos;
+    private int popularHits = Integer.MAX_VALUE;
+    private LongSupplier clock = System::nanoTime;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+    private long fetchCount;
+    private long failedFetchCount;
+    // Source of entry generations; cache-wide, so they keep increasing even when an entry is evicted and recreated.
+    private int lastGeneration;
+
+    /**
+     * @param fetchExecutor    runs {@link Source#fetch(Object)}
+     * @param deliveryExecutor runs {@link LiveData#setValue(Object)} for the resources, typically on the thread that
+     *                         owns their observers
+     */
+    public ResourceCache(Source<K, V> source, Executor fetchExecutor, Executor deliveryExecutor, long ttlNanos,
+                         long maxWeight, ToLongFunction<? super V> weigher) {
+        this.source = source;
+        this.fetchExecutor = fetchExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.ttlNanos = ttlNanos;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Enables refresh-ahead for keys activated at least {@code popularHits} times since their last fetch.
+     */
+    public void setRefreshAhead(long refreshAheadNanos, int popularHits) {
+        this.refreshAheadNanos = refreshAheadNanos;
+        this.popularHits = popularHits;
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public LiveData<V> get(K key) {
+        return new ResourceLiveData(key);
+    }
+
+    /**
+     * Drops the cached value, active resources for {@code key} refetch on their next activation.
+     */
+    public void invalidate(K key) {
+        synchronized (lock) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.hasValue) {
+                entry.fetchedAt = clock.getAsLong() - ttlNanos;
+            }
+        }
+    }
+
+    public long getFetchCount() {
+        synchronized (lock) {
+            return fetchCount;
+        }
+    }
+
+    public long getFailedFetchCount() {
+        synchronized (lock) {
+            return failedFetchCount;
+        }
+    }
+
+    public long getWeight() {
+        synchronized (lock) {
+            return totalWeight;
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    private void fetch(Entry entry) {
+        V value;
+        try {
+            value = source.fetch(entry.key);
+        } catch (Exception e) {
+            // Keep serving the stale value; the next activation, or the revalidation a TTL from now, tries again.
+            synchronized (lock) {
+                entry.isFetching = false;
+                failedFetchCount++;
+                scheduleRevalidation(entry, ttlNanos);
+            }
+            return;
+        }
+        List<ResourceLiveData> subscribers;
+        int generation;
+        synchronized (lock) {
+            long weight = weigher.applyAsLong(value);
+            totalWeight += weight - entry.weight;
+            entry.weight = weight;
+            entry.value = value;
+            entry.hasValue = true;
+            entry.fetchedAt = clock.getAsLong();
+            entry.generation = ++lastGeneration;
+            entry.isPopular |= entry.hits >= popularHits;
+            entry.hits = 0;
+            entry.isFetching = false;
+            fetchCount++;
+            generation = entry.generation;
+            subscribers = new ArrayList<>(entry.subscribers);
+            scheduleRevalidation(entry, nanosUntilDue(entry, entry.fetchedAt));
+            evict();
+        }
+        for (ResourceLiveData subscriber : subscribers) {
+            subscriber.deliver(value, generation);
+        }
+    }
+
+    private boolean isDue(Entry entry, long now) {
+        long age = now - entry.fetchedAt;
+        boolean stale = !entry.hasValue || age >= ttlNanos;
+        boolean popular = entry.isPopular || entry.hits >= popularHits;
+        return stale || popular && age >= ttlNanos - refreshAheadNanos;
+    }
+
+    private long nanosUntilDue(Entry entry, long now) {
+        boolean popular = entry.isPopular || entry.hits >= popularHits;
+        long dueAt = entry.fetchedAt + (popular ? ttlNanos - refreshAheadNanos : ttlNanos);
+        return Math.max(0, dueAt - now);
+    }
+
+    /**
+     * Must hold {@link #lock}. Only entries with active resources are revalidated, the rest wait for an activation.
+     */
+    private void scheduleRevalidation(Entry entry, long delayNanos) {
+        if (entry.subscribers.isEmpty()) {
+            return;
+        }
+        if (entry.revalidation != null) {
+            entry.revalidation.cancel(false);
+        }
+        entry.revalidation = revalidator.schedule(() -> revalidate(entry), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void revalidate(Entry entry) {
+        synchronized (lock) {
+            entry.revalidation = null;
+            if (entry.subscribers.isEmpty() || entry.isFetching) {
+                // Either nobody is listening or the running fetch schedules the next check.
+                return;
+            }
+            long now = clock.getAsLong();
+            if (!isDue(entry, now)) {
+                scheduleRevalidation(entry, nanosUntilDue(entry, now));
+                return;
+            }
+            entry.isFetching = true;
+        }
+        fetchExecutor.execute(() -> fetch(entry));
+    }
+
+    private void evict() {
+        for (Iterator<Entry> iterator = entries.values().iterator();
+             totalWeight > maxWeight && iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.subscribers.isEmpty() && !entry.isFetching) {
+                totalWeight -= entry.weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    private class Entry {
+
+        final K key;
+        final List<ResourceLiveData> subscribers = new ArrayList<>(1);
+        V value;
+        boolean hasValue;
+        long fetchedAt;
+        long weight;
+        // Renewed on every fetched value, so resources can tell whether they already emitted it or a newer one.
+        int generation;
+        int hits;
+        // Reached popularHits since a fetch; kept until the entry loses its last active resource.
+        boolean isPopular;
+        boolean isFetching;
+        ScheduledFuture<?> revalidation;
+
+        Entry(K key) {
+            this.key = key;
+        }
+    }
+
+    private class ResourceLiveData extends LiveData<V> {
+
+        private final K key;
+        private int generation;
+
+        ResourceLiveData(K key) {
+            this.key = key;
+        }
+
+        @Override
+        protected void onActive() {
+            Entry entry;
+            boolean startFetch;
+            V cached = null;
+            int cachedGeneration = 0;
+            synchronized (lock) {
+                entry = entries.computeIfAbsent(key, Entry::new);
+                entry.subscribers.add(this);
+                entry.hits++;
+                long now = clock.getAsLong();
+                startFetch = isDue(entry, now) && !entry.isFetching;
+                if (startFetch) {
+                    entry.isFetching = true;
+                } else if (!entry.isFetching && entry.revalidation == null) {
+                    scheduleRevalidation(entry, nanosUntilDue(entry, now));
+                }
+                if (entry.hasValue) {
+                    cached = entry.value;
+                    cachedGeneration = entry.generation;
+                }
+            }
+            if (cachedGeneration != 0) {
+                deliver(cached, cachedGeneration);
+            }
+            if (startFetch) {
+                fetchExecutor.execute(() -> fetch(entry));
+            }
+        }
+
+        @Override
+        protected void onInactive() {
+            synchronized (lock) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    entry.subscribers.remove(this);
+                    if (entry.subscribers.isEmpty()) {
+                        entry.isPopular = false;
+                        if (entry.revalidation != null) {
+                            entry.revalidation.cancel(false);
+                            entry.revalidation = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Deliveries race between the fetch threads and {@link #onActive()}; only ever queue a newer value.
+         */
+        synchronized void deliver(V value, int generation) {
+            if (generation <= this.generation) {
+                return;
+            }
+            this.generation = generation;
+            deliveryExecutor.execute(() -> setValue(value));
+        }
+    }
+}
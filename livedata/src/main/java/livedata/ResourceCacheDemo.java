@@ -0,0 +1,106 @@
+package livedata;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts a {@link ResourceCache} in front of a stand-in source that sleeps for a fixed latency per fetch, e.g.
+ * {@code java livedata.ResourceCacheDemo 50}. One key is observed steadily from the start; a second one is activated
+ * a few times first, which makes it popular, and then observed steadily as well. For both it prints how old each value
+ * was when the next one replaced it: about TTL plus latency for the plain key, which is revalidated on expiry, and
+ * less than the TTL for the popular one, which is refreshed ahead. A last activation shows a cached value is emitted
+ * right away. Fetches run on a pool, while lifecycles and values are handled on a single owner thread.
+ */
+public class ResourceCacheDemo implements LifecycleOwner {
+
+    private static final long TTL_NANOS = TimeUnit.MILLISECONDS.toNanos(1000);
+    private static final long REFRESH_AHEAD_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+    private static final int POPULAR_HITS = 3;
+
+    private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+    @Override
+    public Lifecycle getLifecycle() {
+        return registry;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 50;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        // Owns the lifecycles and receives every value, like a UI thread would.
+        ExecutorService owner = Executors.newSingleThreadExecutor();
+        ResourceCache<String, Long> cache = new ResourceCache<>(key -> {
+            Thread.sleep(latencyMillis);
+            return System.nanoTime();
+        }, pool::execute, owner::execute, TTL_NANOS, 100, value -> 1);
+        cache.setRefreshAhead(REFRESH_AHEAD_NANOS, POPULAR_HITS);
+
+        Histogram plainAges = new Histogram();
+        Histogram popularAges = new Histogram();
+        ResourceCacheDemo plain = on(owner, () -> observe(cache, "plain", plainAges));
+        for (int i = 0; i < POPULAR_HITS; i++) {
+            ResourceCacheDemo flicker = on(owner, () -> observe(cache, "popular", new Histogram()));
+            Thread.sleep(latencyMillis * 2);
+            on(owner, flicker::destroy);
+        }
+        ResourceCacheDemo popular = on(owner, () -> observe(cache, "popular", popularAges));
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(TTL_NANOS) * 5);
+        on(owner, plain::destroy);
+        on(owner, popular::destroy);
+
+        print("plain", plainAges);
+        print("popular", popularAges);
+
+        long start = System.nanoTime();
+        Histogram firstValue = new Histogram();
+        ResourceCacheDemo again = on(owner, () -> {
+            ResourceCacheDemo demo = new ResourceCacheDemo();
+            cache.get("plain").observe(demo, stamp -> {
+                if (firstValue.getCount() == 0) {
+                    firstValue.record(System.nanoTime() - start);
+                }
+            });
+            demo.registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+            return demo;
+        });
+        // The cached value was queued on the owner thread during activation; this runs after it.
+        on(owner, again::destroy);
+        System.out.printf("reactivation: first value after %dus, fetches=%d failed=%d%n",
+                TimeUnit.NANOSECONDS.toMicros(firstValue.getMax()), cache.getFetchCount(), cache.getFailedFetchCount());
+        pool.shutdownNow();
+        owner.shutdownNow();
+    }
+
+    private static <T> T on(ExecutorService thread, Callable<T> task) throws Exception {
+        return thread.submit(task).get();
+    }
+
+    private Void destroy() {
+        registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        return null;
+    }
+
+    /**
+     * Records, for every value after the first, how old the previous one was when it got replaced.
+     */
+    private static ResourceCacheDemo observe(ResourceCache<String, Long> cache, String key, Histogram ages) {
+        ResourceCacheDemo owner = new ResourceCacheDemo();
+        long[] previous = {0};
+        cache.get(key).observe(owner, stamp -> {
+            if (previous[0] != 0 && stamp != previous[0]) {
+                ages.record(System.nanoTime() - previous[0]);
+            }
+            previous[0] = stamp;
+        });
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        return owner;
+    }
+
+    private static void print(String key, Histogram ages) {
+        System.out.printf("%s: updates=%d value age at replacement p50=%dms max=%dms (ttl=%dms)%n", key,
+                ages.getCount(), TimeUnit.NANOSECONDS.toMillis(ages.getValueAtPercentile(50)),
+                TimeUnit.NANOSECONDS.toMillis(ages.getMax()), TimeUnit.NANOSECONDS.toMillis(TTL_NANOS));
+    }
+}
@@ -65,6 +65,7 @@ public class SafeIterable<K, V> implements Iterable<Map.Entry<K, V>> {
         if (toRemove == null) {
             return null;
         }
+        mHashMap.remove(key);
         mSize--;
         if (!mIterators.isEmpty()) {
             for (SupportRemove<K, V> iter : mIterators.keySet()) {
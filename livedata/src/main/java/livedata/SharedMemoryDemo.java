@@ -0,0 +1,53 @@
+package livedata;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs one side of a {@link SharedMemoryLiveData} pair; start it twice on the same file:
+ * <pre>
+ *   java livedata.SharedMemoryDemo observe /tmp/livedata.shm
+ *   java livedata.SharedMemoryDemo publish /tmp/livedata.shm
+ * </pre>
+ * The publisher sends {@link System#nanoTime()} stamps, which share a clock across processes on the same host, and
+ * the observer prints the publish-to-callback latency until the publisher stops. Like any {@link LiveData}, a slow
+ * observer only sees the latest stamp, so it may receive fewer than were published.
+ */
+public class SharedMemoryDemo implements LifecycleOwner {
+
+    private static final int COUNT = 20_000;
+
+    private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+    @Override
+    public Lifecycle getLifecycle() {
+        return registry;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Paths.get(args.length > 1 ? args[1] : "livedata.shm");
+        try (SharedMemoryLiveData<Long> liveData =
+                     new SharedMemoryLiveData<>(file, Long.BYTES, SharedMemoryLiveData.Codec.LONG, Runnable::run, 0)) {
+            if (args.length > 0 && args[0].equals("publish")) {
+                for (int i = 0; i < COUNT; i++) {
+                    liveData.publish(System.nanoTime());
+                    LockSupport.parkNanos(100_000);
+                }
+                return;
+            }
+            Histogram latency = new Histogram();
+            SharedMemoryDemo owner = new SharedMemoryDemo();
+            liveData.observe(owner, published -> latency.record(System.nanoTime() - published));
+            owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+            long received;
+            do {
+                received = latency.getCount();
+                Thread.sleep(1000);
+                System.out.printf("received=%d p50=%dns p99=%dns p99.9=%dns max=%dns%n", latency.getCount(),
+                        latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+                        latency.getValueAtPercentile(99.9), latency.getMax());
+            } while (received == 0 || latency.getCount() != received);
+        }
+    }
+}
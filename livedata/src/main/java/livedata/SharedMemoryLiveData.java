@@ -0,0 +1,222 @@
+package livedata;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link LiveData} whose value is shared between processes on the same host through a memory-mapped file. One
+ * process {@link #publish(Object) publishes}; every process that observes the same file polls the region while it has
+ * active observers and delivers new values through the given {@link Executor}, with the usual lifecycle semantics.
+ * <p>
+ * The region starts with a seqlock header: the sequence is odd while the writer copies the payload and even once it
+ * is done, so readers retry whenever the sequence was odd or changed while they were copying. Values are written with
+ * a {@link Codec}, no serialization framework is involved. There must be only one publishing process per file.
+ */
+public class SharedMemoryLiveData<T> extends LiveData<T> implements AutoCloseable {
+
+    public interface Codec<T> {
+
+        Codec<Long> LONG = new Codec<Long>() {
+            @Override
+            public void encode(Long value, ByteBuffer target) {
+                target.putLong(value);
+            }
+
+            @Override
+            public Long decode(ByteBuffer source) {
+                return source.getLong();
+            }
+        };
+
+        Codec<String> UTF8 = new Codec<String>() {
+            @Override
+            public void encode(String value, ByteBuffer target) {
+                target.put(value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String decode(ByteBuffer source) {
+                return StandardCharsets.UTF_8.decode(source).toString();
+            }
+        };
+
+        /**
+         * Writes {@code value} starting at the buffer's position; the payload ends at the position afterwards.
+         */
+        void encode(T value, ByteBuffer target);
+
+        /**
+         * Reads a value from the remaining bytes of {@code source}.
+         */
+        T decode(ByteBuffer source);
+    }
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int MAGIC = 0x4c495645;
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int MAGIC_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    // Keep the payload off the header's cache line.
+    private static final int HEADER_SIZE = 64;
+    // Consecutive odd or torn reads before the poller stops spinning, e.g. because the writer died mid-publish.
+    private static final int MAX_SPIN_RETRIES = 1_000;
+    private static final long STALLED_WRITER_PARK_NANOS = 1_000_000;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer region;
+    private final ByteBuffer payload;
+    // Writer-side staging buffer, so a failing encoder never leaves the shared sequence odd.
+    private final ByteBuffer encodeBuffer;
+    private final int capacity;
+    private final Codec<T> codec;
+    private final Executor deliveryExecutor;
+    private final long pollIntervalNanos;
+
+    // Sequence of the last value this process published itself. Sequences only grow, so the poller skips anything up
+    // to it: its own values were already set locally, and older ones would overwrite a newer local value.
+    private volatile long publishedSequence;
+    private volatile Thread poller;
+
+    /**
+     * @param capacity          maximum payload size in bytes; all processes must agree on it
+     * @param deliveryExecutor  runs {@link #setValue(Object)} for values published by other processes, typically on
+     *                          the thread that owns the observers
+     * @param pollIntervalNanos pause between polls while active, {@code 0} to spin
+     */
+    public SharedMemoryLiveData(Path file, int capacity, Codec<T> codec, Executor deliveryExecutor,
+                                long pollIntervalNanos) throws IOException {
+        this.capacity = capacity;
+        this.codec = codec;
+        this.deliveryExecutor = deliveryExecutor;
+        this.pollIntervalNanos = pollIntervalNanos;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            lock = channel.lock();
+            region = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+            region.order(ByteOrder.nativeOrder());
+            if (region.getInt(MAGIC_OFFSET) == 0) {
+                region.putInt(CAPACITY_OFFSET, capacity);
+                region.putInt(MAGIC_OFFSET, MAGIC);
+            } else if (region.getInt(MAGIC_OFFSET) != MAGIC || region.getInt(CAPACITY_OFFSET) != capacity) {
+                throw new IllegalStateException(file + " is not a shared LiveData region of " + capacity + " bytes");
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        } finally {
+            if (lock != null && lock.isValid()) {
+                lock.release();
+            }
+        }
+        payload = region.duplicate().position(HEADER_SIZE).slice();
+        encodeBuffer = ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Writes {@code value} into the shared region and sets it locally. Must only be called from one thread of one
+     * process per file. The value is encoded before the region is touched, so an encoder that throws (for example
+     * with a {@link java.nio.BufferOverflowException} for a value larger than the capacity) leaves it unchanged.
+     */
+    void publish(T value) {
+        encodeBuffer.clear();
+        codec.encode(value, encodeBuffer);
+        encodeBuffer.flip();
+        long sequence = (long) LONGS.getOpaque(region, SEQUENCE_OFFSET);
+        LONGS.setOpaque(region, SEQUENCE_OFFSET, sequence + 1);
+        VarHandle.storeStoreFence();
+        payload.clear();
+        payload.put(encodeBuffer);
+        region.putInt(LENGTH_OFFSET, encodeBuffer.limit());
+        // Before the release, so a local poller can never see this sequence without knowing it was ours.
+        publishedSequence = sequence + 2;
+        LONGS.setRelease(region, SEQUENCE_OFFSET, sequence + 2);
+        setValue(value);
+    }
+
+    @Override
+    protected void onActive() {
+        Thread thread = new Thread(this::poll, "livedata-shared-memory-poller");
+        thread.setDaemon(true);
+        poller = thread;
+        thread.start();
+    }
+
+    @Override
+    protected void onInactive() {
+        Thread thread = poller;
+        poller = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void poll() {
+        Thread self = Thread.currentThread();
+        ByteBuffer view = payload.duplicate();
+        byte[] scratch = new byte[capacity];
+        long lastSequence = 0;
+        int retries = 0;
+        while (poller == self) {
+            long sequence = (long) LONGS.getAcquire(region, SEQUENCE_OFFSET);
+            if (sequence != lastSequence) {
+                if ((sequence & 1) != 0) {
+                    // The writer is mid-publish; retry soon, but back off if it never finishes.
+                    retries = backOff(retries);
+                    continue;
+                }
+                int length = region.getInt(LENGTH_OFFSET);
+                if (length >= 0 && length <= capacity) {
+                    view.clear();
+                    view.get(scratch, 0, length);
+                    VarHandle.loadLoadFence();
+                    if ((long) LONGS.getVolatile(region, SEQUENCE_OFFSET) == sequence) {
+                        lastSequence = sequence;
+                        retries = 0;
+                        if (sequence > publishedSequence) {
+                            T value = codec.decode(ByteBuffer.wrap(scratch, 0, length));
+                            deliveryExecutor.execute(() -> setValue(value));
+                        }
+                        continue;
+                    }
+                }
+                // Torn read, the writer was active; try again right away.
+                retries = backOff(retries);
+                continue;
+            }
+            retries = 0;
+            if (pollIntervalNanos > 0) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private int backOff(int retries) {
+        if (retries < MAX_SPIN_RETRIES) {
+            Thread.onSpinWait();
+            return retries + 1;
+        }
+        LockSupport.parkNanos(this, Math.max(pollIntervalNanos, STALLED_WRITER_PARK_NANOS));
+        return retries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        onInactive();
+        channel.close();
+    }
+}
@@ -0,0 +1,79 @@
+package livedata;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link LiveDataMetrics} that aggregates everything into striped counters and {@link Histogram}s, so recording never
+ * makes the measured threads contend with each other.
+ */
+public class StripedLiveDataMetrics implements LiveDataMetrics {
+
+    private final Histogram dispatchNanos = new Histogram();
+    private final Histogram dispatchFanOut = new Histogram();
+    private final Histogram observerNanos = new Histogram();
+    private final Histogram computeNanos = new Histogram();
+    private final Histogram syncPasses = new Histogram();
+    private final LongAdder posted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Override
+    public void dispatched(long nanos, int fanOut) {
+        dispatchNanos.record(nanos);
+        dispatchFanOut.record(fanOut);
+    }
+
+    @Override
+    public void observerNotified(long nanos) {
+        observerNanos.record(nanos);
+    }
+
+    @Override
+    public void valuePosted(boolean coalesced) {
+        posted.increment();
+        if (coalesced) {
+            this.coalesced.increment();
+        }
+    }
+
+    @Override
+    public void computed(long nanos) {
+        computeNanos.record(nanos);
+    }
+
+    @Override
+    public void lifecycleSynced(int passes) {
+        syncPasses.record(passes);
+    }
+
+    public Histogram getDispatchNanos() {
+        return dispatchNanos;
+    }
+
+    public Histogram getDispatchFanOut() {
+        return dispatchFanOut;
+    }
+
+    public Histogram getObserverNanos() {
+        return observerNanos;
+    }
+
+    public Histogram getComputeNanos() {
+        return computeNanos;
+    }
+
+    public long getRecomputeCount() {
+        return computeNanos.getCount();
+    }
+
+    public Histogram getSyncPasses() {
+        return syncPasses;
+    }
+
+    /**
+     * Share of {@code postValue} calls that were folded into a value that was still pending, between 0 and 1.
+     */
+    public double getPostCoalescingRatio() {
+        long posted = this.posted.sum();
+        return posted == 0 ? 0 : (double) coalesced.sum() / posted;
+    }
+}
@@ -0,0 +1,101 @@
+package livedata;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Feeds emissions of a {@code LiveData<List<T>>} into a Swing model. Every emission is snapshotted and diffed against
+ * what the EDT currently shows on a background executor. Only the newest diff is kept, and a timer applies it on the
+ * EDT at most once per frame, so bursts of updates collapse into one set of interval events.
+ */
+class SwingListBinding<T> {
+
+    interface Sink<T> {
+
+        /**
+         * Called on the EDT with the new rows and how they differ from the previous ones.
+         */
+        void apply(List<T> items, ListDiff diff);
+    }
+
+    static final int FRAME_MILLIS = 16;
+
+    private static final ExecutorService diffExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "livedata-swing-diff");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Sink<T> sink;
+    private final Timer flushTimer;
+
+    private final Object lock = new Object();
+    // Rows the EDT shows once it took the last update; what the next diff has to start from.
+    private List<T> taken = Collections.emptyList();
+    private Update<T> pending;
+
+    SwingListBinding(LifecycleOwner owner, LiveData<? extends List<T>> source, Sink<T> sink) {
+        this.sink = sink;
+        flushTimer = new Timer(FRAME_MILLIS, e -> flush());
+        flushTimer.setRepeats(false);
+        source.observe(owner, items -> {
+            // Copy on the dispatching thread, the source list may be mutated once we return.
+            List<T> snapshot = items == null ? Collections.emptyList() : new ArrayList<>(items);
+            diffExecutor.execute(() -> diff(snapshot));
+        });
+    }
+
+    private void diff(List<T> items) {
+        while (true) {
+            Update<T> expected;
+            List<T> from;
+            synchronized (lock) {
+                expected = pending;
+                from = taken;
+            }
+            ListDiff diff = ListDiff.between(from, items);
+            synchronized (lock) {
+                // If the EDT took the pending update meanwhile, the diff started from stale rows.
+                if (pending != expected) {
+                    continue;
+                }
+                if (diff.isEmpty() && expected == null) {
+                    return;
+                }
+                pending = new Update<>(items, diff);
+            }
+            if (expected == null) {
+                flushTimer.restart();
+            }
+            return;
+        }
+    }
+
+    private void flush() {
+        Update<T> update;
+        synchronized (lock) {
+            update = pending;
+            pending = null;
+            if (update == null) {
+                return;
+            }
+            taken = update.items;
+        }
+        sink.apply(update.items, update.diff);
+    }
+
+    private static class Update<T> {
+
+        final List<T> items;
+        final ListDiff diff;
+
+        Update(List<T> items, ListDiff diff) {
+            this.items = items;
+            this.diff = diff;
+        }
+    }
+}